@@ -0,0 +1,69 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.logging.AsyncLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionCatalog;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution (p99 in SampleTime mode) of throwEarlyCatchLate, which always fails and logs a full cause chain,
+ * with logging inline on request threads versus handed to the async ring buffer under each overflow policy.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AsyncLoggingBenchmark {
+    @Param({"inline", "DROP", "BLOCK", "SUMMARIZE"})
+    public String sink;
+
+    private LogSink logSink;
+    private ExceptionEndPoint endPoint;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(true);
+        logSink = "inline".equals(sink) ? InlineLogSink.INSTANCE : new AsyncLogSink(8192, AsyncLogSink.Overflow.valueOf(sink), 256);
+        endPoint = new ExceptionEndPoint(new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        }), logSink, FailureObserver.NONE, SequentialBulkExecutor.INSTANCE), logSink, FailureObserver.NONE, new ExceptionCatalog(), ExceptionTranslator.standard());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (logSink instanceof AsyncLogSink) {
+            AsyncLogSink async = (AsyncLogSink) logSink;
+            async.close();
+            System.out.println("async log sink " + sink + " : " + async.processedEvents() + " events logged, " + async.droppedEvents() + " dropped");
+        }
+    }
+
+    @Benchmark
+    public String throwEarlyCatchLate() {
+        return endPoint.throwEarlyCatchLate();
+    }
+}
@@ -0,0 +1,91 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.execution.BulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.execution.ForkJoinBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.execution.ThreadPerTaskBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Ids processed per second by each bulk executor, from 1 to 8 threads, over a batch with 1% of invalid ids.
+ * The DAO either burns CPU or blocks 20 micros per call, to show fork join scaling with cores and thread per task with concurrency.
+ * Virtual threads ignore the threads parameter : run on a JDK providing them with -Djdk.virtualThreadScheduler.parallelism instead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(BulkExecutionScalingBenchmark.BATCH)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkExecutionScalingBenchmark {
+    static final int BATCH = 4096;
+
+    @Param({"sequential", "fork-join", "virtual-threads"})
+    public String executor;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"cpu", "blocking"})
+    public String daoWork;
+
+    private final int[] ids = IntStream.range(0, BATCH).map(i -> i % 100 == 0 ? -i - 1 : i).toArray();
+    private BulkExecutor bulkExecutor;
+    private ExceptionDao dao;
+
+    @Setup
+    public void setUp() {
+        switch (executor) {
+            case "fork-join":
+                bulkExecutor = new ForkJoinBulkExecutor(threads, BATCH / (threads * 8));
+                break;
+            case "virtual-threads":
+                bulkExecutor = ThreadPerTaskBulkExecutor.virtualThreads(threads, 16);
+                break;
+            default:
+                bulkExecutor = SequentialBulkExecutor.INSTANCE;
+        }
+        boolean blocking = "blocking".equals(daoWork);
+        dao = new ExceptionDao() {
+            @Override
+            public IntOutcome apiWhenLibReturnsOutcomes(int id) {
+                if (blocking) {
+                    LockSupport.parkNanos(20_000);
+                } else {
+                    Blackhole.consumeCPU(200);
+                }
+                return ExceptionDao.super.apiWhenLibReturnsOutcomes(id);
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        bulkExecutor.close();
+    }
+
+    @Benchmark
+    public Object bulk() {
+        return bulkExecutor.execute(ids, dao::apiWhenLibReturnsOutcomes);
+    }
+}
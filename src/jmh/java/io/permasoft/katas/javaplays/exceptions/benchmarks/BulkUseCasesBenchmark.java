@@ -0,0 +1,58 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per id of a batch of ids : one use case call per id, versus one bulk call for the whole batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(FailureRatioIds.SIZE)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkUseCasesBenchmark {
+
+    @Benchmark
+    public void warnUseCasePerId(ExceptionStack stack, FailureRatioIds ids, Blackhole blackhole) {
+        for (int id : ids.batch()) {
+            blackhole.consume(stack.useCases.warnUseCaseWorksDespiteException(id));
+        }
+    }
+
+    @Benchmark
+    public Object warnUseCaseBulk(ExceptionStack stack, FailureRatioIds ids) {
+        return stack.useCases.warnUseCaseWorksDespiteExceptions(ids.batch());
+    }
+
+    @Benchmark
+    public void errorUseCasePerId(ExceptionStack stack, FailureRatioIds ids, Blackhole blackhole) {
+        for (int id : ids.batch()) {
+            try {
+                blackhole.consume(stack.useCases.errorUseCaseFailsDueToException(id));
+            } catch (BusinessDomainException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object errorUseCaseBulk(ExceptionStack stack, FailureRatioIds ids) {
+        try {
+            return stack.useCases.errorUseCaseFailsDueToExceptions(ids.batch());
+        } catch (BusinessDomainException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.persistence.CachingExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeated ids through the plain store and the caching store, from 4 threads to include contention on hot entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachingStoreBenchmark {
+    @Param({"plain", "caching"})
+    public String store;
+
+    private ExceptionStore exceptionStore;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(false);
+        ExceptionDao dao = new ExceptionDao() {
+        };
+        exceptionStore = "caching".equals(store) ? new CachingExceptionStore(dao, 10_000, 60_000, 10_000) : new ExceptionStore(dao);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(exceptionStore);
+    }
+
+    @Benchmark
+    public Object conditionalThrow(FailureRatioIds ids) {
+        try {
+            return exceptionStore.conditionalThrow(ids.next());
+        } catch (YourUseOfMyLibraryIsInvalid e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int conditionalOutcome(FailureRatioIds ids) {
+        return exceptionStore.conditionalOutcome(ids.next()).orElse(0);
+    }
+}
@@ -0,0 +1,69 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.StoreGuards;
+import io.permasoft.katas.javaplays.exceptions.persistence.StoreMethod;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import io.permasoft.katas.javaplays.exceptions.resilience.Bulkhead;
+import io.permasoft.katas.javaplays.exceptions.resilience.CircuitBreaker;
+import io.permasoft.katas.javaplays.exceptions.resilience.Guard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a failing store call : unguarded it reaches the DAO and builds its exception,
+ * behind an open circuit it is shed with the preallocated exception. Closed guards add their bookkeeping to successful calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CircuitBreakerBenchmark {
+    @Param({"unguarded", "guarded"})
+    public String guard;
+
+    private ExceptionStore store;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(false);
+        StoreGuards guards = StoreGuards.NONE;
+        if ("guarded".equals(guard)) {
+            guards = new StoreGuards(Map.of(
+                    StoreMethod.THROW_UNCHECKED, new Guard(new CircuitBreaker("throwUnchecked", 100, 10, 50, 3_600_000, 1), new Bulkhead("throwUnchecked", 64)),
+                    StoreMethod.DONT_THROW, new Guard(new CircuitBreaker("dontThrow", 100, 10, 50, 3_600_000, 1), new Bulkhead("dontThrow", 64))));
+        }
+        store = new ExceptionStore(new ExceptionDao() {
+        }, guards);
+    }
+
+    @Benchmark
+    public Object failingCall() {
+        try {
+            return store.throwUnchecked();
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object succeedingCall() throws Exception {
+        return store.dontThrow();
+    }
+}
@@ -0,0 +1,114 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput, latency and (with -prof gc) allocation rate of every exception path, layer by layer.
+ * Paths taking an id run with 0%, 1%, 50% and 100% of invalid ids, every path runs with logging on and off.
+ * Failures are caught and returned so the JIT cannot eliminate them.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionPathsBenchmark {
+
+    @Benchmark
+    public Object daoLibWantsYouToHandleItsExceptions(ExceptionStack stack, FailureRatioIds ids) {
+        try {
+            return stack.dao.apiWhenLibWantsYouToHandleItsExceptions(ids.next());
+        } catch (YourUseOfMyLibraryIsInvalid e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int daoLibReturnsOutcomes(ExceptionStack stack, FailureRatioIds ids) {
+        return stack.dao.apiWhenLibReturnsOutcomes(ids.next()).orElse(0);
+    }
+
+    @Benchmark
+    public Object daoLibShallWork(ExceptionStack stack, FailureRatioIds ids) {
+        try {
+            return stack.dao.apiWhenLibShallWork(ids.next());
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object storeConditionalThrow(ExceptionStack stack, FailureRatioIds ids) {
+        try {
+            return stack.store.conditionalThrow(ids.next());
+        } catch (YourUseOfMyLibraryIsInvalid e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int storeConditionalOutcome(ExceptionStack stack, FailureRatioIds ids) {
+        return stack.store.conditionalOutcome(ids.next()).orElse(0);
+    }
+
+    @Benchmark
+    public Object storeDontThrow(ExceptionStack stack) {
+        try {
+            return stack.store.dontThrow();
+        } catch (YourUseOfMyLibraryIsInvalid e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object storeThrowChecked(ExceptionStack stack) {
+        try {
+            return stack.store.throwChecked();
+        } catch (YourUseOfMyLibraryIsInvalid e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object storeThrowUnchecked(ExceptionStack stack) {
+        try {
+            return stack.store.throwUnchecked();
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object warnUseCaseWorksDespiteException(ExceptionStack stack, FailureRatioIds ids) {
+        return stack.useCases.warnUseCaseWorksDespiteException(ids.next());
+    }
+
+    @Benchmark
+    public Object errorUseCaseFailsDueToException(ExceptionStack stack, FailureRatioIds ids) {
+        try {
+            return stack.useCases.errorUseCaseFailsDueToException(ids.next());
+        } catch (BusinessDomainException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object outcomeUseCaseReportsFailure(ExceptionStack stack, FailureRatioIds ids) {
+        return stack.useCases.outcomeUseCaseReportsFailure(ids.next());
+    }
+
+    @Benchmark
+    public Object endPointThrowEarlyCatchLate(ExceptionStack stack) {
+        return stack.endPoint.throwEarlyCatchLate();
+    }
+}
@@ -0,0 +1,34 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The whole layered stack wired by hand, as in ExceptionsTest, so we measure our code and not the Spring proxies.
+ */
+@State(Scope.Benchmark)
+public class ExceptionStack {
+    @Param({"true", "false"})
+    public boolean logging;
+
+    public ExceptionDao dao;
+    public ExceptionStore store;
+    public ExceptionUseCases useCases;
+    public ExceptionEndPoint endPoint;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(logging);
+        dao = new ExceptionDao() {
+        };
+        store = new ExceptionStore(dao);
+        useCases = new ExceptionUseCases(store);
+        endPoint = new ExceptionEndPoint(useCases);
+    }
+}
@@ -0,0 +1,64 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error response of a failure : handler cached per class by the translator, versus a hierarchy walk on every failure.
+ * The failures are preallocated so only the translation is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionTranslationBenchmark {
+    private final ExceptionTranslator translator = ExceptionTranslator.standard();
+    private final Map<Class<?>, Integer> statuses = Map.of(BusinessDomainException.class, 500, IllegalArgumentException.class, 400);
+    private final RuntimeException business = BusinessDomainException.preallocated("business failure");
+    private final RuntimeException unmapped = new CancellationException("cancelled");
+
+    @Benchmark
+    public Object translatorBusiness() {
+        return translator.translate(business).body();
+    }
+
+    @Benchmark
+    public Object translatorFixed() {
+        return translator.translate(unmapped).body();
+    }
+
+    @Benchmark
+    public Object hierarchyWalkBusiness() {
+        return walk(business);
+    }
+
+    @Benchmark
+    public Object hierarchyWalkUnmapped() {
+        return walk(unmapped);
+    }
+
+    private String walk(Throwable failure) {
+        for (Class<?> type = failure.getClass(); type != null; type = type.getSuperclass()) {
+            Integer status = statuses.get(type);
+            if (status != null) {
+                return "Error " + status + " due to : " + failure.getMessage();
+            }
+        }
+        return "Error 500 due to : " + failure.getMessage();
+    }
+}
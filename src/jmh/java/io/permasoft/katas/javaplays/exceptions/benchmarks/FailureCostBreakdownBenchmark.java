@@ -0,0 +1,80 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the failure path of errorUseCaseFailsDueToException into its parts so each cost can be read on its own :
+ * message building, stack capture, wrapping into a business exception and log formatting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FailureCostBreakdownBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(FailureCostBreakdownBenchmark.class);
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private int id = -1;
+    private YourUseOfMyLibraryIsInvalid cause;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(logging);
+        cause = new YourUseOfMyLibraryIsInvalid("Negative input[" + id + "] is invalid");
+    }
+
+    @Benchmark
+    public String messageBuilding() {
+        return "Negative input[" + id + "] is invalid";
+    }
+
+    @Benchmark
+    public Throwable stackCapture() {
+        return new YourUseOfMyLibraryIsInvalid("Negative input[" + id + "] is invalid");
+    }
+
+    @Benchmark
+    public Throwable stackCaptureAndWrapping() {
+        YourUseOfMyLibraryIsInvalid e = new YourUseOfMyLibraryIsInvalid("Negative input[" + id + "] is invalid");
+        return new BusinessDomainException("fail calling external library due to : " + e.getMessage(), e);
+    }
+
+    @Benchmark
+    public Throwable throwAndCatch() {
+        try {
+            throw new YourUseOfMyLibraryIsInvalid("Negative input[" + id + "] is invalid");
+        } catch (YourUseOfMyLibraryIsInvalid e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void logMessageOnly() {
+        log.error("process fails due to : {}", cause.getMessage());
+    }
+
+    @Benchmark
+    public void logWithStackTrace() {
+        log.error("throwEarlyCatchLate failed due to :", cause);
+    }
+}
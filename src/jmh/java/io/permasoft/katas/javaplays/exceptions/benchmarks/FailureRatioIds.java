@@ -0,0 +1,50 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Cycles over a fixed shuffled set of ids where failureRatio of them are negative, hence invalid.
+ * The shuffle is seeded so every fork sees the same sequence and branch profile.
+ */
+@State(Scope.Thread)
+public class FailureRatioIds {
+    static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    @Param({"0", "0.01", "0.5", "1"})
+    public double failureRatio;
+
+    private final int[] ids = new int[SIZE];
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        int failures = (int) Math.round(failureRatio * SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            ids[i] = i < failures ? -1 : 1;
+        }
+        Random random = new Random(42);
+        for (int i = SIZE - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+    }
+
+    public int next() {
+        return ids[cursor++ & MASK];
+    }
+
+    /**
+     * The whole set as one batch, not to be modified.
+     */
+    public int[] batch() {
+        return ids;
+    }
+}
@@ -0,0 +1,63 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionFlightRecorder;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording an already thrown failure once its symbols are interned.
+ * Run with -prof gc : the only allocation left per record shall be the stack trace copy made by Throwable.getStackTrace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightRecorderBenchmark {
+    @Param({"none", "recorder"})
+    public String observer;
+
+    private final BusinessDomainException failure = new BusinessDomainException("fail calling external library due to : Negative input[-1] is invalid",
+            new IllegalArgumentException("Negative input[-1] is invalid"));
+    private Path file;
+    private ExceptionFlightRecorder recorder;
+    private FailureObserver failureObserver;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("flight-recorder-benchmark", ".rec");
+        recorder = ExceptionFlightRecorder.open(file, 16384, 1 << 20);
+        failureObserver = "recorder".equals(observer) ? recorder : FailureObserver.NONE;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        recorder.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void failed() {
+        failureObserver.failed(failure);
+    }
+}
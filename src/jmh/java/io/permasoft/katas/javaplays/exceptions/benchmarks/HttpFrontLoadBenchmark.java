@@ -0,0 +1,91 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionHttpServer;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback load : 16 client threads against the HTTP front with its worker pool and cached problem documents,
+ * then against a thread per request front formatting error bodies per request.
+ * Throughput mode gives requests per second, SampleTime mode gives p99 latency.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpFrontLoadBenchmark {
+    @Param({"worker-pool", "thread-per-request"})
+    public String front;
+
+    private AutoCloseable server;
+    private HttpClient client;
+    private HttpRequest succeeds;
+    private HttpRequest fails;
+
+    @Setup
+    public void setUp() throws IOException {
+        LoggingSwitch.apply(false);
+        ExceptionEndPoint endPoint = new ExceptionEndPoint(new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        })));
+        InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        int port;
+        if ("worker-pool".equals(front)) {
+            ExceptionHttpServer httpServer = new ExceptionHttpServer(endPoint, ExceptionTranslator.standard(), loopback,
+                    Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors()));
+            httpServer.start();
+            port = httpServer.port();
+            server = httpServer;
+        } else {
+            ThreadPerRequestHttpFront baseline = new ThreadPerRequestHttpFront(endPoint, loopback);
+            port = baseline.port();
+            server = baseline;
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        succeeds = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/endpoint/succeeds")).build();
+        fails = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/endpoint/fails")).build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Benchmark
+    public Object success() throws Exception {
+        return client.send(succeeds, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public Object failure() throws Exception {
+        return client.send(fails, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
@@ -0,0 +1,76 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.monitoring.events.ExceptionEvents;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the DaoCall event on the cheapest store path, a successful outcome : eventless is the same store with the plain DAO call.
+ * With recording off, event shall be within noise of eventless, and -prof gc shall show no allocation for either.
+ * recording on only shows what is paid once a recording with our events runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+@State(Scope.Benchmark)
+public class JfrEventsOverheadBenchmark {
+    @Param({"off", "on"})
+    public String recording;
+
+    private final ExceptionDao dao = new ExceptionDao() {
+    };
+    private final ExceptionStore withEvent = new ExceptionStore(dao);
+    private final ExceptionStore eventless = new ExceptionStore(dao) {
+        @Override
+        protected IntOutcome loadOutcome(int positiveId) {
+            return dao.apiWhenLibReturnsOutcomes(positiveId);
+        }
+    };
+    private Recording jfr;
+    public int id = 42;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(false);
+        if ("on".equals(recording)) {
+            jfr = new Recording();
+            jfr.enable(ExceptionEvents.PREFIX + "DaoCall");
+            jfr.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (jfr != null) {
+            jfr.close();
+        }
+    }
+
+    @Benchmark
+    public IntOutcome eventless() {
+        return eventless.conditionalOutcome(id);
+    }
+
+    @Benchmark
+    public IntOutcome event() {
+        return withEvent.conditionalOutcome(id);
+    }
+}
@@ -0,0 +1,225 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.configuration.AspectsConfiguration;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyHistogram;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In process load on the endpoint stack, from N client threads, for what JMH does not show : behaviour under concurrency,
+ * tail latency, GC pauses and allocation rate over a sustained run.
+ * <p>
+ * Closed loop threads call again as soon as answered, which measures capacity but hides queueing. Open loop threads follow
+ * a fixed arrival schedule and measure each latency from the intended start of the request, so a stalled call also counts
+ * against the requests queued behind it, avoiding coordinated omission.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=io.permasoft.katas.javaplays.exceptions.benchmarks.LoadGenerator -Djmh.args="--mode=open --rate=20000"</pre>
+ * See {@link LoadOptions} for every setting. The report is printed and written as JSON, to compare runs.
+ */
+public final class LoadGenerator {
+    private final LoadOptions options;
+    private final LatencyHistogram successes;
+    private final LatencyHistogram failures;
+    private final LongAdder thrown = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final Map<String, GcPauses> gcPauses = new ConcurrentHashMap<>();
+
+    LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.successes = new LatencyHistogram(options.threads);
+        this.failures = new LatencyHistogram(options.threads);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        LoadReport report = new LoadGenerator(options).run();
+        System.out.println(report);
+        if (options.output.getParent() != null) {
+            Files.createDirectories(options.output.getParent());
+        }
+        Files.writeString(options.output, report.toJson());
+        System.out.println("report written to " + options.output.toAbsolutePath());
+    }
+
+    LoadReport run() throws InterruptedException, IOException {
+        LoggingSwitch.apply(options.logging);
+        ExceptionEndPoint endPoint = endPoint();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureStart = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        CountDownLatch finished = new CountDownLatch(options.threads);
+        CountDownLatch measured = new CountDownLatch(1);
+        Thread[] clients = new Thread[options.threads];
+        for (int i = 0; i < clients.length; i++) {
+            int index = i;
+            clients[i] = new Thread(() -> {
+                drive(endPoint, index, start, measureStart, end);
+                finished.countDown();
+                awaitUninterruptibly(measured);
+            }, "load-client-" + i);
+            clients[i].setDaemon(true);
+            clients[i].start();
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] clientIds = new long[clients.length];
+        for (int i = 0; i < clients.length; i++) {
+            clientIds[i] = clients[i].getId();
+        }
+        LockSupport.parkNanos(measureStart - System.nanoTime());
+        long[] allocatedBefore = threadBean.getThreadAllocatedBytes(clientIds);
+        NotificationListener gcListener = this::gcFinished;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+        }
+        finished.await();
+        long measuredNanos = System.nanoTime() - measureStart;
+        long[] allocatedAfter = threadBean.getThreadAllocatedBytes(clientIds);
+        measured.countDown();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            try {
+                ((NotificationEmitter) gc).removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException ignored) {
+                // never added
+            }
+        }
+        long allocated = 0;
+        for (int i = 0; i < clientIds.length; i++) {
+            allocated += allocatedAfter[i] - allocatedBefore[i];
+        }
+        return new LoadReport(options, Math.min(measuredNanos, end - measureStart), successes.distribution(), failures.distribution(),
+                thrown.sum(), late.sum(), gcPauses, allocated);
+    }
+
+    private void drive(ExceptionEndPoint endPoint, int index, long start, long measureStart, long end) {
+        FailureRatioIds ids = new FailureRatioIds();
+        ids.failureRatio = options.failureRatio;
+        ids.setUp();
+        for (int i = 0; i < index * (FailureRatioIds.SIZE / options.threads); i++) {
+            ids.next();
+        }
+        boolean open = options.mode == LoadOptions.Mode.OPEN;
+        double interval = 1e9 * options.threads / options.rate;
+        double offset = 1e9 * index / options.rate;
+        for (long n = 0; ; n++) {
+            long intended;
+            if (open) {
+                intended = start + (long) (offset + n * interval);
+                if (intended >= end) {
+                    return;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (intended >= measureStart && wait < -TimeUnit.MILLISECONDS.toNanos(1)) {
+                    late.increment();
+                }
+            } else {
+                intended = Math.max(System.nanoTime(), start);
+                if (intended >= end) {
+                    return;
+                }
+                LockSupport.parkNanos(intended - System.nanoTime());
+            }
+            boolean failing = ids.next() < 0;
+            boolean threw = call(endPoint, failing);
+            long latency = System.nanoTime() - intended;
+            if (intended >= measureStart) {
+                (failing ? failures : successes).record(latency);
+                if (threw) {
+                    thrown.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * True when the call threw, failures answered by the translating aspect do not.
+     */
+    private boolean call(ExceptionEndPoint endPoint, boolean failing) {
+        try {
+            if (!failing) {
+                endPoint.endPointSucceedsHandledByFramework();
+            } else if (options.endpoint == LoadOptions.Endpoint.TRANSLATED) {
+                endPoint.endPointFailsTranslatedByAspect();
+            } else {
+                endPoint.endPointFailsHandledByFramework();
+            }
+            return false;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private ExceptionEndPoint endPoint() {
+        ExceptionEndPoint target = new ExceptionEndPoint(new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        })));
+        if (!options.aspects) {
+            return target;
+        }
+        return AspectsConfiguration.advised(target, ExceptionTranslator.standard(), new LatencyMetrics(), InlineLogSink.INSTANCE, FailureObserver.NONE);
+    }
+
+    private void gcFinished(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            gcPauses.computeIfAbsent(info.getGcName(), name -> new GcPauses()).add(info.getGcInfo().getDuration());
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+                // the report still needs this thread alive to read its allocations
+            }
+        }
+    }
+
+    /**
+     * Collections of one collector during the measurement. Pause collectors report pauses, concurrent ones their cycle time.
+     */
+    static final class GcPauses {
+        private long count;
+        private long totalMillis;
+        private long maxMillis;
+
+        synchronized void add(long millis) {
+            count++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        synchronized String toJson() {
+            return "{\"count\":" + count + ",\"totalMillis\":" + totalMillis + ",\"maxMillis\":" + maxMillis + '}';
+        }
+
+        @Override
+        public synchronized String toString() {
+            return count + " in " + totalMillis + " ms, max " + maxMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a {@link LoadGenerator} run, given as --name=value arguments :
+ * <pre>
+ * --threads=8            client threads, defaults to the number of cores
+ * --mode=closed          closed : each thread calls again as soon as answered, open : fixed arrival rate
+ * --rate=10000           open mode only, requests per second for all threads together
+ * --warmup=2             seconds run before measuring
+ * --duration=10          seconds measured
+ * --failure-ratio=0.1    share of requests meant to fail
+ * --endpoint=framework   framework : failures thrown by endPointFailsHandledByFramework, translated : answered by endPointFailsTranslatedByAspect
+ * --aspects=true         advise the endpoint with the @Logging and @TranslateExceptions aspects, through a proxy, or woven in a -Paspectj-ctw build where false has no effect
+ * --logging=false        DEBUG logging to a null stream, or no logging at all
+ * --output=target/load/load-[time].json
+ * </pre>
+ */
+final class LoadOptions {
+    enum Mode {OPEN, CLOSED}
+
+    enum Endpoint {FRAMEWORK, TRANSLATED}
+
+    final int threads;
+    final Mode mode;
+    final long rate;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final double failureRatio;
+    final Endpoint endpoint;
+    final boolean aspects;
+    final boolean logging;
+    final Path output;
+
+    private LoadOptions(Map<String, String> values) {
+        this.threads = Integer.parseInt(values.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.mode = Mode.valueOf(values.getOrDefault("mode", "closed").toUpperCase());
+        this.rate = Long.parseLong(values.getOrDefault("rate", "10000"));
+        this.warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "2"));
+        this.durationSeconds = Integer.parseInt(values.getOrDefault("duration", "10"));
+        this.failureRatio = Double.parseDouble(values.getOrDefault("failure-ratio", "0.1"));
+        this.endpoint = Endpoint.valueOf(values.getOrDefault("endpoint", "framework").toUpperCase());
+        this.aspects = Boolean.parseBoolean(values.getOrDefault("aspects", "true"));
+        this.logging = Boolean.parseBoolean(values.getOrDefault("logging", "false"));
+        this.output = Paths.get(values.getOrDefault("output", "target/load/load-" + System.currentTimeMillis() + ".json"));
+        if (threads <= 0 || rate <= 0 || warmupSeconds < 0 || durationSeconds <= 0 || failureRatio < 0 || failureRatio > 1) {
+            throw new IllegalArgumentException("invalid load options " + values);
+        }
+    }
+
+    static LoadOptions parse(String... args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("expected --name=value, got " + arg);
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return new LoadOptions(values);
+    }
+
+    String toJson() {
+        return "{\"threads\":" + threads
+                + ",\"mode\":\"" + mode.name().toLowerCase() + '"'
+                + (mode == Mode.OPEN ? ",\"rate\":" + rate : "")
+                + ",\"warmupSeconds\":" + warmupSeconds
+                + ",\"durationSeconds\":" + durationSeconds
+                + ",\"failureRatio\":" + failureRatio
+                + ",\"endpoint\":\"" + endpoint.name().toLowerCase() + '"'
+                + ",\"aspects\":" + aspects
+                + ",\"logging\":" + logging + '}';
+    }
+}
@@ -0,0 +1,82 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencySnapshot;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link LoadGenerator} run : throughput, latency percentiles of successes and failures, GC and allocations.
+ */
+final class LoadReport {
+    private final Instant finishedAt = Instant.now();
+    private final LoadOptions options;
+    private final long measuredNanos;
+    private final LatencySnapshot.Distribution successes;
+    private final LatencySnapshot.Distribution failures;
+    private final long thrown;
+    private final long late;
+    private final Map<String, LoadGenerator.GcPauses> gcPauses;
+    private final long allocatedBytes;
+
+    LoadReport(LoadOptions options, long measuredNanos, LatencySnapshot.Distribution successes, LatencySnapshot.Distribution failures,
+               long thrown, long late, Map<String, LoadGenerator.GcPauses> gcPauses, long allocatedBytes) {
+        this.options = options;
+        this.measuredNanos = measuredNanos;
+        this.successes = successes;
+        this.failures = failures;
+        this.thrown = thrown;
+        this.late = late;
+        this.gcPauses = new TreeMap<>(gcPauses);
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    long requests() {
+        return successes.count() + failures.count();
+    }
+
+    double throughputPerSecond() {
+        return requests() * 1e9 / measuredNanos;
+    }
+
+    double allocatedBytesPerSecond() {
+        return allocatedBytes * 1e9 / measuredNanos;
+    }
+
+    double allocatedBytesPerRequest() {
+        return requests() == 0 ? 0 : (double) allocatedBytes / requests();
+    }
+
+    String toJson() {
+        StringBuilder gc = new StringBuilder("{");
+        gcPauses.forEach((name, pauses) -> gc.append(gc.length() > 1 ? "," : "").append('"').append(name).append("\":").append(pauses.toJson()));
+        gc.append('}');
+        return "{\"finishedAt\":\"" + finishedAt + '"'
+                + ",\"options\":" + options.toJson()
+                + ",\"measuredMillis\":" + TimeUnit.NANOSECONDS.toMillis(measuredNanos)
+                + ",\"requests\":" + requests()
+                + ",\"throughputPerSecond\":" + Math.round(throughputPerSecond())
+                + ",\"thrown\":" + thrown
+                + ",\"lateStarts\":" + late
+                + ",\"latencyNanos\":{\"successes\":" + toJson(successes) + ",\"failures\":" + toJson(failures) + '}'
+                + ",\"gc\":" + gc
+                + ",\"allocation\":{\"bytes\":" + allocatedBytes
+                + ",\"bytesPerSecond\":" + Math.round(allocatedBytesPerSecond())
+                + ",\"bytesPerRequest\":" + Math.round(allocatedBytesPerRequest()) + "}}";
+    }
+
+    private static String toJson(LatencySnapshot.Distribution distribution) {
+        return "{\"count\":" + distribution.count() + ",\"p50\":" + distribution.p50() + ",\"p99\":" + distribution.p99()
+                + ",\"p999\":" + distribution.p999() + ",\"max\":" + distribution.max() + '}';
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d requests in %d ms, %.0f per second, %d thrown, %d late starts%n"
+                        + "successes %s%nfailures  %s%ngc %s%nallocated %d MB, %.1f MB/s, %.0f bytes per request",
+                requests(), TimeUnit.NANOSECONDS.toMillis(measuredNanos), throughputPerSecond(), thrown, late,
+                successes, failures, gcPauses, allocatedBytes >> 20, allocatedBytesPerSecond() / (1 << 20), allocatedBytesPerRequest());
+    }
+}
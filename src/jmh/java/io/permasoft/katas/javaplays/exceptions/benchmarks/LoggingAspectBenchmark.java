@@ -0,0 +1,65 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.configuration.LoggingInOuts;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the @Logging advice on endPointSucceedsHandledByFramework : no proxy, proxy with the legacy aspect, proxy with LoggingInOuts.
+ * Run with -prof gc, with logging off the current aspect shall not add allocations to the proxy itself.
+ * In a -Paspectj-ctw build the endpoint is already woven : aspect=none then measures the woven advice, the proxied variants are rejected since ajc compiled aspects can not be proxied.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+    @Param({"none", "legacy", "current"})
+    public String aspect;
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private ExceptionEndPoint endPoint;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(logging);
+        ExceptionEndPoint target = new ExceptionEndPoint(new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        })));
+        if ("none".equals(aspect)) {
+            endPoint = target;
+            return;
+        }
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect("legacy".equals(aspect) ? new LegacyLoggingInOuts() : new LoggingInOuts(new LatencyMetrics(), InlineLogSink.INSTANCE, FailureObserver.NONE));
+        endPoint = factory.getProxy();
+    }
+
+    @Benchmark
+    public String endPointSucceedsHandledByFramework() {
+        return endPoint.endPointSucceedsHandledByFramework();
+    }
+}
@@ -0,0 +1,141 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import io.permasoft.katas.javaplays.exceptions.resources.ResourcePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request thread cost of a resource opened and closed per call with try-with-resources, against one borrowed from a
+ * {@link ResourcePool} and given back. closeTokens is the CPU spent by each close, failingClose makes it throw as well :
+ * try-with-resources pays both on the request, as latency and as a suppressed or thrown exception, the pool on its close executor.
+ * The use case pair runs failOnMissingRessources against failOnMissingPooledRessources, whose ressources fail closing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PooledResourcesBenchmark {
+    @Param({"0", "2000"})
+    public long closeTokens;
+
+    @Param({"false", "true"})
+    public boolean failingClose;
+
+    private ExecutorService closer;
+    private ResourcePool<Channel> pool;
+    private ExceptionUseCases useCases;
+
+    @Setup
+    public void setUp() {
+        closer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "benchmark-closer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool = new ResourcePool<>("channels", this::open, channel -> true, 16, Runnable::run, closer, FailureObserver.NONE);
+        useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        }));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        System.out.println(pool.statistics());
+        System.out.println(useCases.ressources().statistics());
+        pool.close();
+        closer.shutdown();
+        closer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private Channel open() {
+        return new Channel(closeTokens, failingClose);
+    }
+
+    @Benchmark
+    public int tryWithResources() {
+        try (Channel channel = open()) {
+            return channel.read();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The channel is invalidated once in a while so that the pool keeps closing some, as it would after failures.
+     */
+    @Benchmark
+    public int pooled() throws Exception {
+        try (ResourcePool.Lease<Channel> lease = pool.lease(1, TimeUnit.SECONDS)) {
+            int read = lease.get().read();
+            if ((read & 63) == 0) {
+                lease.invalidate();
+            }
+            return read;
+        }
+    }
+
+    @Benchmark
+    public Object useCaseTryWithResources() {
+        try {
+            return useCases.failOnMissingRessources();
+        } catch (BusinessDomainException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object useCasePooled() {
+        try {
+            return useCases.failOnMissingPooledRessources();
+        } catch (BusinessDomainException e) {
+            return e;
+        }
+    }
+
+    static final class Channel implements AutoCloseable {
+        private final long closeTokens;
+        private final boolean failingClose;
+        private int reads;
+
+        Channel(long closeTokens, boolean failingClose) {
+            this.closeTokens = closeTokens;
+            this.failingClose = failingClose;
+        }
+
+        int read() {
+            return ++reads;
+        }
+
+        @Override
+        public void close() throws IOException {
+            Blackhole.consumeCPU(closeTokens);
+            if (failingClose) {
+                throw new IOException("error at closing time");
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.persistence.segmentlog.SegmentLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Write and read throughput of the segment log from 8 threads. With syncOnWrite every put waits for a force :
+ * compare the forces per second printed at tear down with the puts per second, the gap is what group commit saves.
+ * Reads hit the in memory index only, writers compete with them on the append lock through failed optimistic reads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentLogBenchmark {
+    private static final int IDS = 1 << 16;
+
+    @Param({"false", "true"})
+    public boolean syncOnWrite;
+
+    private Path directory;
+    private SegmentLog log;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("segment-log-benchmark");
+        log = SegmentLog.open(directory, 1 << 20, 4, syncOnWrite);
+        for (int id = 0; id < IDS; id++) {
+            log.put(id, id);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.println("appended " + log.appended() + " records with " + log.forces() + " forces and " + log.compactions() + " compactions");
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Ids {
+        int next = (int) (Thread.currentThread().getId() * 7919);
+
+        int next() {
+            next = (next + 1) & (IDS - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public void put(Ids ids) {
+        int id = ids.next();
+        log.put(id, id);
+    }
+
+    @Benchmark
+    public IntOutcome get(Ids ids) {
+        return log.get(ids.next());
+    }
+}
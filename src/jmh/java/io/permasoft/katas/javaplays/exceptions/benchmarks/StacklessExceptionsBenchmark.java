@@ -0,0 +1,84 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throw and catch cost with full stack traces versus stackless mode, logging off so only the exceptions are measured.
+ * The stack depth parameter adds frames between the throw and the catch, stack capture cost grows with it, stackless does not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StacklessExceptionsBenchmark {
+    @Param({"false", "true"})
+    public boolean stackless;
+
+    @Param({"0", "50"})
+    public int stackDepth;
+
+    private ExceptionDao dao;
+    private ExceptionUseCases useCases;
+
+    @Setup
+    public void setUp() {
+        LoggingSwitch.apply(false);
+        YourUseOfMyLibraryIsInvalid.STACK_TRACES.configure(stackless, 0);
+        BusinessDomainException.STACK_TRACES.configure(stackless, 0);
+        dao = new ExceptionDao() {
+        };
+        useCases = new ExceptionUseCases(new ExceptionStore(dao));
+    }
+
+    @TearDown
+    public void tearDown() {
+        YourUseOfMyLibraryIsInvalid.STACK_TRACES.configure(false, 0);
+        BusinessDomainException.STACK_TRACES.configure(false, 0);
+    }
+
+    @Benchmark
+    public Object libraryInvalidThrowAndCatch() {
+        return deep(stackDepth, () -> {
+            try {
+                return dao.apiWhenLibWantsYouToHandleItsExceptions(-1);
+            } catch (YourUseOfMyLibraryIsInvalid e) {
+                return e;
+            }
+        });
+    }
+
+    @Benchmark
+    public Object businessDomainWrapThrowAndCatch() {
+        return deep(stackDepth, () -> {
+            try {
+                return useCases.errorUseCaseFailsDueToException(-1);
+            } catch (BusinessDomainException e) {
+                return e;
+            }
+        });
+    }
+
+    private static Object deep(int depth, java.util.function.Supplier<Object> call) {
+        return depth == 0 ? call.get() : deep(depth - 1, call);
+    }
+}
@@ -0,0 +1,45 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import io.permasoft.katas.javaplays.exceptions.FastStartupApplication;
+import io.permasoft.katas.javaplays.exceptions.SpringSampleApplication;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start : time from a fresh JVM to the first successful endPointSucceedsHandledByFramework call,
+ * with the scanned and auto configured application versus the explicitly wired one.
+ * One measurement per fork, so every sample pays class loading and interpretation as a new instance would.
+ * The scanned application gets its ExceptionDao from the test classes, on the benchmark classpath.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    @Param({"scanned", "fast"})
+    public String mode;
+
+    @Benchmark
+    public String timeToFirstCall() {
+        try (ConfigurableApplicationContext context = "fast".equals(mode)
+                ? FastStartupApplication.run()
+                : SpringApplication.run(SpringSampleApplication.class)) {
+            return context.getBean(ExceptionEndPoint.class).endPointSucceedsHandledByFramework();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.permasoft.katas.javaplays.exceptions.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Baseline in the servlet style : a new thread per request, error bodies formatted from the exception on every failure.
+ */
+class ThreadPerRequestHttpFront implements AutoCloseable {
+    private final HttpServer server;
+
+    ThreadPerRequestHttpFront(ExceptionEndPoint endPoint, InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.setExecutor(task -> new Thread(task).start());
+        server.createContext("/endpoint/succeeds", exchange -> answer(exchange, endPoint::endPointSucceedsHandledByFramework));
+        server.createContext("/endpoint/fails", exchange -> answer(exchange, endPoint::endPointFailsHandledByFramework));
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void answer(HttpExchange exchange, Supplier<String> endPointCall) throws IOException {
+        String body;
+        int status;
+        try {
+            body = endPointCall.get();
+            status = 200;
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        } catch (RuntimeException failure) {
+            status = 500;
+            String message = failure.getMessage();
+            body = "{\"type\":\"about:blank\",\"title\":\"Internal Server Error\",\"status\":" + status
+                    + (message == null ? "" : ",\"detail\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"")
+                    + "}";
+            exchange.getResponseHeaders().set("Content-Type", "application/problem+json");
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        exchange.close();
+    }
+}
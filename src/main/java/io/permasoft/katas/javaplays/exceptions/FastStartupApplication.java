@@ -0,0 +1,111 @@
+package io.permasoft.katas.javaplays.exceptions;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.configuration.AspectsConfiguration;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionCatalog;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Comparator;
+
+/**
+ * Startup optimized variant of {@link SpringSampleApplication} : no classpath scanning, no auto configuration,
+ * beans registered explicitly and created lazily on first use, only ExceptionEndPoint proxied since it is the only bean with @Logging methods, and not even it when aspects are woven at build time.
+ * Beans get their default settings, the properties read by the configuration classes are not applied.
+ * <p>
+ * Bean instantiation timings are buffered, see {@link #logStartupTimings(ConfigurableApplicationContext)}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FastStartupApplication {
+    private static final Logger log = LoggerFactory.getLogger(FastStartupApplication.class);
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = run(args);
+        context.getBean(ExceptionEndPoint.class);
+        logStartupTimings(context);
+    }
+
+    public static ConfigurableApplicationContext run(String... args) {
+        SpringApplication application = new SpringApplication(FastStartupApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.setLazyInitialization(true);
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.addInitializers(new ExplicitBeans());
+        return application.run(args);
+    }
+
+    /**
+     * Logs the instantiation time of every bean created so far, slowest first. Lazy beans appear once used.
+     */
+    public static void logStartupTimings(ConfigurableApplicationContext context) {
+        if (!(context.getApplicationStartup() instanceof BufferingApplicationStartup) || !log.isInfoEnabled()) {
+            return;
+        }
+        StartupTimeline timeline = ((BufferingApplicationStartup) context.getApplicationStartup()).getBufferedTimeline();
+        timeline.getEvents().stream()
+                .filter(event -> BEAN_INSTANTIATION.equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .forEach(event -> log.info("bean {} instantiated in {} micros", beanName(event),
+                        event.getDuration().dividedBy(Duration.ofNanos(1000))));
+    }
+
+    private static String beanName(StartupTimeline.TimelineEvent event) {
+        for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+
+    static final class ExplicitBeans implements ApplicationContextInitializer<GenericApplicationContext> {
+        @Override
+        public void initialize(GenericApplicationContext context) {
+            context.registerBean(LogSink.class, () -> InlineLogSink.INSTANCE);
+            context.registerBean(LatencyMetrics.class, () -> new LatencyMetrics());
+            context.registerBean(ExceptionCatalog.class, () -> new ExceptionCatalog());
+            context.registerBean(ExceptionTranslator.class, ExceptionTranslator::standard);
+            context.registerBean(ExceptionDao.class, ExplicitBeans::defaultDao);
+            context.registerBean(ExceptionStore.class, () -> new ExceptionStore(context.getBean(ExceptionDao.class)));
+            context.registerBean(ExceptionUseCases.class, () -> new ExceptionUseCases(context.getBean(ExceptionStore.class),
+                    context.getBean(LogSink.class), context.getBean(ExceptionCatalog.class), SequentialBulkExecutor.INSTANCE));
+            context.registerBean(ExceptionEndPoint.class, () -> advised(context, new ExceptionEndPoint(context.getBean(ExceptionUseCases.class),
+                    context.getBean(LogSink.class), context.getBean(ExceptionCatalog.class), context.getBean(ExceptionCatalog.class),
+                    context.getBean(ExceptionTranslator.class))));
+        }
+
+        private static ExceptionDao defaultDao() {
+            return new ExceptionDao() {
+            };
+        }
+
+        /**
+         * Aspects woven at build time already advise the endpoint, they only need their collaborators.
+         */
+        private static ExceptionEndPoint advised(GenericApplicationContext context, ExceptionEndPoint endPoint) {
+            return AspectsConfiguration.advised(endPoint, context.getBean(ExceptionTranslator.class), context.getBean(LatencyMetrics.class),
+                    context.getBean(LogSink.class), context.getBean(ExceptionCatalog.class));
+        }
+    }
+}
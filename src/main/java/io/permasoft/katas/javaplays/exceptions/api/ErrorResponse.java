@@ -0,0 +1,113 @@
+package io.permasoft.katas.javaplays.exceptions.api;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Status and message answered for a failure, as a text body or as an RFC 7807 problem document.
+ * Both are built once : at registration for fixed responses, on first use for the others.
+ * Fixed and templated responses are shared between failures, rendered right away.
+ */
+public final class ErrorResponse {
+    private final int status;
+    private final String message;
+    private String body;
+    private byte[] problem;
+
+    private ErrorResponse(int status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    static ErrorResponse of(int status, String message) {
+        return new ErrorResponse(status, message);
+    }
+
+    /**
+     * Response shared by many failures, body and problem document rendered right away.
+     */
+    static ErrorResponse fixed(int status, String message) {
+        ErrorResponse response = new ErrorResponse(status, message);
+        response.body();
+        response.problem();
+        return response;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    /**
+     * Racy memo, rendering is idempotent and strings are immutable.
+     */
+    public String body() {
+        String rendered = body;
+        if (rendered == null) {
+            rendered = "Error " + status + " due to : " + message;
+            body = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * application/problem+json document in UTF-8, shared : callers must not modify it.
+     * A byte array rather than a direct ByteBuffer, since the OutputStream of HttpExchange only takes arrays :
+     * a buffer would be copied back into one on every write.
+     */
+    byte[] problem() {
+        byte[] rendered = problem;
+        if (rendered == null) {
+            StringBuilder json = new StringBuilder(96 + (message == null ? 0 : message.length()))
+                    .append("{\"type\":\"about:blank\",\"title\":\"").append(title(status))
+                    .append("\",\"status\":").append(status);
+            if (message != null) {
+                appendJsonString(json.append(",\"detail\":"), message);
+            }
+            rendered = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+            problem = rendered;
+        }
+        return rendered;
+    }
+
+    private static String title(int status) {
+        switch (status) {
+            case 400:
+                return "Bad Request";
+            case 404:
+                return "Not Found";
+            case 405:
+                return "Method Not Allowed";
+            case 500:
+                return "Internal Server Error";
+            case 501:
+                return "Not Implemented";
+            case 503:
+                return "Service Unavailable";
+            default:
+                return "Error";
+        }
+    }
+
+    private static void appendJsonString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return body();
+    }
+}
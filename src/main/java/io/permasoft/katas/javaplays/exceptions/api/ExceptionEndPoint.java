@@ -2,35 +2,65 @@ package io.permasoft.katas.javaplays.exceptions.api;
 
 import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
 import io.permasoft.katas.javaplays.exceptions.configuration.Logging;
+import io.permasoft.katas.javaplays.exceptions.configuration.TranslateExceptions;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionCatalog;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionStatistics;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 public class ExceptionEndPoint {
     private static final Logger log = LoggerFactory.getLogger(ExceptionEndPoint.class);
 
     private ExceptionUseCases useCases;
+    private LogSink logSink;
+    private FailureObserver failureObserver;
+    private ExceptionCatalog catalog;
+    private ExceptionTranslator translator;
 
-    @Autowired
     public ExceptionEndPoint(ExceptionUseCases useCases) {
+        this(useCases, InlineLogSink.INSTANCE, FailureObserver.NONE, new ExceptionCatalog(), ExceptionTranslator.standard());
+    }
+
+    @Autowired
+    public ExceptionEndPoint(ExceptionUseCases useCases, LogSink logSink, FailureObserver failureObserver, ExceptionCatalog catalog, ExceptionTranslator translator) {
         this.useCases = useCases;
+        this.logSink = logSink;
+        this.failureObserver = failureObserver;
+        this.catalog = catalog;
+        this.translator = translator;
     }
 
     /**
      * this catch handling shall be configured with your framework or implemented in servlet filters or implemented with aspect pointcut to catch all your endpoints.
      */
     public String throwEarlyCatchLate() {
+        Object answer = throwEarlyCatchLateAnswer();
+        return answer instanceof ErrorResponse ? ((ErrorResponse) answer).body() : (String) answer;
+    }
+
+    /**
+     * throwEarlyCatchLate answering the ErrorResponse itself on failure, for callers writing its status, as the HTTP server.
+     */
+    public Object throwEarlyCatchLateAnswer() {
         log.debug("start processing throwEarlyCatchLate");
-        String result;
+        Object result;
         try {
             result = "200 OK : " + useCases.errorUseCaseFailsDueToException(-1).toString();
             log.info("throwEarlyCatchLate succeeded returns {}", result);
         } catch (Exception any) { // don't catch throwable to avoid catching fatal errors and still catch checked and unchecked exceptions
-            log.error("throwEarlyCatchLate failed");
-            log.error("throwEarlyCatchLate failed due to :", any);
-            result = "Error 500 due to : " + any.getMessage();
+            failureObserver.failed(any);
+            logSink.log(log, Level.ERROR, "throwEarlyCatchLate failed");
+            logSink.log(log, Level.ERROR, "throwEarlyCatchLate failed due to :", any);
+            result = translator.translate(any);
         }
         return result;
     }
@@ -43,4 +73,36 @@ public class ExceptionEndPoint {
     public String endPointSucceedsHandledByFramework() {
         return useCases.errorUseCaseFailsDueToException(1).toString();
     }
+
+    /**
+     * Same as throwEarlyCatchLate without the hand written catch : the TranslatingExceptions aspect answers the failure.
+     */
+    @Logging
+    @TranslateExceptions
+    public String endPointFailsTranslatedByAspect() {
+        return useCases.errorUseCaseFailsDueToException(-1).toString();
+    }
+
+    /**
+     * endPointFailsTranslatedByAspect answering the ErrorResponse itself on failure, for callers writing its status, as the HTTP server.
+     */
+    @Logging
+    @TranslateExceptions
+    public Object endPointFailsAnsweredByAspect() {
+        return useCases.errorUseCaseFailsDueToException(-1).toString();
+    }
+
+    /**
+     * Failures occurring the most right now, most frequent first.
+     */
+    public List<ExceptionStatistics> hottestFailures(int limit) {
+        return catalog.topByRate(limit);
+    }
+
+    /**
+     * Every failure ending with the given root cause, fully qualified class name, most frequent first.
+     */
+    public List<ExceptionStatistics> failuresCausedBy(String rootCauseType) {
+        return catalog.byRootCause(rootCauseType);
+    }
 }
@@ -0,0 +1,113 @@
+package io.permasoft.katas.javaplays.exceptions.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * HTTP exposure of {@link ExceptionEndPoint} on the JDK server : its dispatcher thread multiplexes connections,
+ * endpoint calls run on the given worker pool. Successes answer text/plain,
+ * failures answer an application/problem+json document rendered by the {@link ExceptionTranslator}, with its status,
+ * whether the endpoint threw them or answered them itself. Endpoints only answer GET, other methods get a 405.
+ * Fixed error responses are serialized once at registration and their bytes written as is on every failure.
+ */
+public class ExceptionHttpServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ExceptionHttpServer.class);
+    private static final String TEXT = "text/plain; charset=utf-8";
+    private static final String PROBLEM = "application/problem+json";
+    private static final ErrorResponse METHOD_NOT_ALLOWED = ErrorResponse.fixed(405, "only GET is allowed");
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ExceptionTranslator translator;
+
+    public ExceptionHttpServer(ExceptionEndPoint endPoint, ExceptionTranslator translator, InetSocketAddress address, ExecutorService workers) throws IOException {
+        this.translator = translator;
+        this.workers = workers;
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(workers);
+        route("/endpoint/succeeds", endPoint::endPointSucceedsHandledByFramework);
+        route("/endpoint/fails", endPoint::endPointFailsHandledByFramework);
+        route("/endpoint/translated", endPoint::endPointFailsAnsweredByAspect);
+        route("/endpoint/throw-early-catch-late", endPoint::throwEarlyCatchLateAnswer);
+    }
+
+    public void start() {
+        server.start();
+        log.info("exception endpoints listening on port {}", port());
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Waits up to 5 seconds for the requests in progress, an interrupt does not cut it short : the interrupt status is restored once done.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        boolean interrupted = false;
+        long remaining;
+        while (!workers.isTerminated() && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                workers.awaitTermination(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void route(String path, Supplier<?> endPointCall) {
+        server.createContext(path, exchange -> answer(exchange, endPointCall));
+    }
+
+    private void answer(HttpExchange exchange, Supplier<?> endPointCall) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                send(exchange, METHOD_NOT_ALLOWED.status(), PROBLEM, METHOD_NOT_ALLOWED.problem());
+                return;
+            }
+            Object answer;
+            try {
+                answer = endPointCall.get();
+            } catch (RuntimeException failure) { // already logged by the endpoint aspects
+                answer = translator.translate(failure);
+            }
+            if (answer instanceof ErrorResponse) {
+                ErrorResponse response = (ErrorResponse) answer;
+                send(exchange, response.status(), PROBLEM, response.problem());
+            } else {
+                send(exchange, 200, TEXT, String.valueOf(answer).getBytes(StandardCharsets.UTF_8));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Bodies are byte arrays, the only thing the response OutputStream of HttpExchange writes : no direct buffer to copy from.
+     */
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
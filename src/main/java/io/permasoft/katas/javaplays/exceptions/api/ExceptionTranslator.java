@@ -0,0 +1,100 @@
+package io.permasoft.katas.javaplays.exceptions.api;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
+import io.permasoft.katas.javaplays.exceptions.support.TemplatedMessage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Central exception to {@link ErrorResponse} translation. Handlers are registered per exception type,
+ * the handler of a concrete class is resolved once by walking up its class hierarchy, then cached in a ClassValue :
+ * translating a failure costs a single lookup.
+ * Failures without a handler answer 500 with their message, as endpoints always did.
+ * Responses of failures with a {@link MessageTemplate} are rendered once per message and shared, see {@link TemplatedResponses}.
+ */
+public final class ExceptionTranslator {
+    private static final Handler INTERNAL_ERROR = failure -> ErrorResponse.of(500, failure.getMessage());
+
+    private final Map<Class<?>, Handler> handlers;
+    private final ClassValue<Handler> resolved = new ClassValue<Handler>() {
+        @Override
+        protected Handler computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                Handler handler = handlers.get(current);
+                if (handler != null) {
+                    return handler;
+                }
+            }
+            return INTERNAL_ERROR;
+        }
+    };
+
+    private ExceptionTranslator(Map<Class<?>, Handler> handlers) {
+        this.handlers = Map.copyOf(handlers);
+    }
+
+    /**
+     * Business failures keep their message, technical ones get a fixed pre-rendered body that does not leak internals.
+     */
+    public static ExceptionTranslator standard() {
+        return builder()
+                .status(BusinessDomainException.class, 500)
+                .status(YourUseOfMyLibraryIsInvalid.class, 400)
+                .status(IllegalArgumentException.class, 400)
+                .fixed(CancellationException.class, 503, "request cancelled, retry later")
+                .fixed(UnsupportedOperationException.class, 501, "not implemented")
+                .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ErrorResponse translate(Throwable failure) {
+        return resolved.get(failure.getClass()).translate(failure);
+    }
+
+    @FunctionalInterface
+    public interface Handler {
+        ErrorResponse translate(Throwable failure);
+    }
+
+    public static final class Builder {
+        private final Map<Class<?>, Handler> handlers = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Failures of this type and its subtypes answer this status with their own message.
+         */
+        public Builder status(Class<? extends Throwable> type, int status) {
+            TemplatedResponses templated = new TemplatedResponses(status);
+            return handler(type, failure -> {
+                MessageTemplate template = failure instanceof TemplatedMessage ? ((TemplatedMessage) failure).messageTemplate() : null;
+                return template == null ? ErrorResponse.of(status, failure.getMessage()) : templated.response(template, failure.getMessage());
+            });
+        }
+
+        /**
+         * Failures of this type and its subtypes answer the same pre-rendered response, whatever their message.
+         */
+        public Builder fixed(Class<? extends Throwable> type, int status, String message) {
+            ErrorResponse response = ErrorResponse.fixed(status, message);
+            return handler(type, failure -> response);
+        }
+
+        public Builder handler(Class<? extends Throwable> type, Handler handler) {
+            handlers.put(type, handler);
+            return this;
+        }
+
+        public ExceptionTranslator build() {
+            return new ExceptionTranslator(handlers);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.permasoft.katas.javaplays.exceptions.api;
+
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pre-rendered responses of one status for failures with a {@link MessageTemplate} : templates are constants, and a template
+ * only renders a few distinct messages, so body and problem document are rendered once per message, then shared.
+ * Each template has a small direct mapped table indexed by the hash of the message, a collision replaces the previous response.
+ * Plain String messages are not cached : any text may come, the cache would only grow.
+ */
+final class TemplatedResponses {
+    static final int MAX_TEMPLATES = 256;
+    static final int RESPONSES_PER_TEMPLATE = 64;
+
+    private final int status;
+    private final Map<MessageTemplate, AtomicReferenceArray<ErrorResponse>> responses = new ConcurrentHashMap<>();
+
+    TemplatedResponses(int status) {
+        this.status = status;
+    }
+
+    /**
+     * The shared response for this rendered message of the template, created on first use.
+     */
+    ErrorResponse response(MessageTemplate template, String message) {
+        AtomicReferenceArray<ErrorResponse> table = responses.get(template);
+        if (table == null) {
+            if (responses.size() >= MAX_TEMPLATES) { // templates built on the fly, not constants
+                return ErrorResponse.of(status, message);
+            }
+            table = responses.computeIfAbsent(template, ignored -> new AtomicReferenceArray<>(RESPONSES_PER_TEMPLATE));
+        }
+        int index = (message == null ? 0 : message.hashCode()) & (RESPONSES_PER_TEMPLATE - 1);
+        ErrorResponse cached = table.get(index);
+        if (cached != null && Objects.equals(cached.message(), message)) {
+            return cached;
+        }
+        ErrorResponse rendered = ErrorResponse.fixed(status, message);
+        table.set(index, rendered);
+        return rendered;
+    }
+}
@@ -1,76 +1,273 @@
 package io.permasoft.katas.javaplays.exceptions.application;
 
 import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.execution.BulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.SuccessSampling;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.events.RecoveryEvent;
+import io.permasoft.katas.javaplays.exceptions.monitoring.events.SuppressedCloseEvent;
+import io.permasoft.katas.javaplays.exceptions.monitoring.events.WrapEvent;
 import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.resources.ResourcePool;
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 @Service
 public class ExceptionUseCases {
     private static final Logger log = LoggerFactory.getLogger(ExceptionUseCases.class);
+    static final int MAX_SUPPRESSED_FAILURES = 16;
+    static final int MAX_POOLED_RESSOURCES = 64;
+    private static final long LEASE_TIMEOUT_MILLIS = 1000;
+    private static final MessageTemplate CALL_FAILED = MessageTemplate.of("fail calling external library due to : {cause}");
+    private static final MessageTemplate CHECKED_WRAPPED = MessageTemplate.of("wrap checked in unchecked due to {cause}");
 
     private ExceptionStore externalLib;
+    private LogSink logSink;
+    private FailureObserver failureObserver;
+    private BulkExecutor bulkExecutor;
+    private SuccessSampling.Sampler warnSampler;
+    private SuccessSampling.Sampler errorSampler;
+    private SuccessSampling.Sampler outcomeSampler;
+    private ResourcePool<AutoCloseable> ressources;
 
-    @Autowired
     public ExceptionUseCases(ExceptionStore externalLib) {
+        this(externalLib, InlineLogSink.INSTANCE, FailureObserver.NONE, SequentialBulkExecutor.INSTANCE);
+    }
+
+    public ExceptionUseCases(ExceptionStore externalLib, LogSink logSink, FailureObserver failureObserver, BulkExecutor bulkExecutor) {
+        this(externalLib, logSink, failureObserver, bulkExecutor, new SuccessSampling(),
+                ressourcePool(MAX_POOLED_RESSOURCES, ForkJoinPool.commonPool(), failureObserver));
+    }
+
+    /**
+     * Success INFO lines of a call are all written or all skipped, as decided by the sampling when the call starts,
+     * once a call fails its remaining lines are always written.
+     *
+     * @param ressources pool of the ressources of failOnMissingPooledRessources, built by {@link #ressourcePool}
+     */
+    @Autowired
+    public ExceptionUseCases(ExceptionStore externalLib, LogSink logSink, FailureObserver failureObserver, BulkExecutor bulkExecutor,
+                             SuccessSampling successSampling, ResourcePool<AutoCloseable> ressources) {
         this.externalLib = externalLib;
+        this.logSink = logSink;
+        this.failureObserver = failureObserver;
+        this.bulkExecutor = bulkExecutor;
+        this.warnSampler = successSampling.sampler("ExceptionUseCases.warnUseCaseWorksDespiteException");
+        this.errorSampler = successSampling.sampler("ExceptionUseCases.errorUseCaseFailsDueToException");
+        this.outcomeSampler = successSampling.sampler("ExceptionUseCases.outcomeUseCaseReportsFailure");
+        this.ressources = ressources;
+    }
+
+    /**
+     * Pool of ressources failing when closed, recycled and closed on the executor.
+     */
+    public static ResourcePool<AutoCloseable> ressourcePool(int maxSize, Executor executor, FailureObserver failureObserver) {
+        return new ResourcePool<>("ExceptionUseCases.ressources", FailingResourceClosing::new, ressource -> true,
+                maxSize, executor, null, failureObserver);
     }
 
     public StringBuilder warnUseCaseWorksDespiteException(int positiveId) {
+        long start = System.nanoTime();
         StringBuilder result = new StringBuilder();
+        int sampled = sample(warnSampler);
         try {
-            log.info("call external ressource");
+            info(sampled, "call external ressource");
             result.append(externalLib.conditionalThrow(positiveId)).append(", ");
-            log.info("after call");
+            info(sampled, "after call");
             return result.append("return from try, ");
         } catch (Exception e) {
-            log.warn("provide a default result, due to : ", e);
+            sampled = 1;
+            failureObserver.failed(e);
+            RecoveryEvent.record("warnUseCaseWorksDespiteException", e, start);
+            logSink.log(log, Level.WARN, "provide a default result, due to : ", e);
             result.append(e.getMessage()).append(", ");
             // resume business process despite external exception
             return result.append("return from catch, ");
         } finally { // this block shall never contain return or throws statements : https://www.baeldung.com/java-finally-keyword#common-pitfalls
-            log.info("ensure resources are closed, ");
+            infoOnExit(warnSampler, sampled, start, "ensure resources are closed, ");
             result.append("modify result in finally.");
         }
         // unreachable statement return result.append("return from end.").toString();
     }
 
     public StringBuilder errorUseCaseFailsDueToException(int positiveId) {
+        long start = System.nanoTime();
         StringBuilder result = new StringBuilder();
+        int sampled = sample(errorSampler);
         try {
-            log.info("call external ressource");
+            info(sampled, "call external ressource");
             result.append(externalLib.conditionalThrow(positiveId)).append(", ");
-            log.info("after call");
+            info(sampled, "after call");
             return result.append("return from try, ");
         } catch (Exception e) {
-            log.error("process fails due to : {}", e.getMessage());
+            sampled = 1;
+            failureObserver.failed(e);
+            logSink.log(log, Level.ERROR, "process fails due to : {}", e.getMessage());
             result.append(e.getMessage()).append(", ");
             // abort business process due to external exception
-            throw new BusinessDomainException("fail calling external library due to : "+e.getMessage(), e);
+            BusinessDomainException failure = new BusinessDomainException(CALL_FAILED, e);
+            WrapEvent.record("errorUseCaseFailsDueToException", e, failure, start);
+            throw failure;
         } finally { // this block shall never contain return or throws statements : https://www.baeldung.com/java-finally-keyword#common-pitfalls
-            log.info("ensure resources are closed, ");
+            infoOnExit(errorSampler, sampled, start, "ensure resources are closed, ");
             result.append("modify result in finally.");
         }
         // unreachable statement return result.append("return from end.").toString();
     }
 
+    /**
+     * Exception free variant of the use cases above : the caller decides to recover or to fail from the returned outcome.
+     * Failure message is handed to the log sink unrendered, so it is only built when WARN is enabled, on the logging thread.
+     */
+    public IntOutcome outcomeUseCaseReportsFailure(int positiveId) {
+        long start = System.nanoTime();
+        int sampled = sample(outcomeSampler);
+        info(sampled, "call external ressource");
+        IntOutcome outcome = externalLib.conditionalOutcome(positiveId);
+        if (outcome.isSuccess()) {
+            infoOnExit(outcomeSampler, sampled, start, "after call");
+        } else {
+            logSink.log(log, Level.WARN, "process reports failure : {}", outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * Bulk variant of warnUseCaseWorksDespiteException : failed ids are reported in the result failure table, the others still succeed.
+     * One log line per batch instead of one per id. Calls are fanned out by the {@link BulkExecutor}, a RuntimeException thrown by one of them
+     * only fails its id, an Error stops the whole batch.
+     */
+    public BulkOutcome warnUseCaseWorksDespiteExceptions(int[] positiveIds) {
+        log.info("call external ressource for {} ids", positiveIds.length);
+        BulkOutcome outcome = bulkExecutor.execute(positiveIds, externalLib::conditionalOutcome);
+        if (outcome.hasFailures()) {
+            logSink.log(log, Level.WARN, "provide default results for {} of {} ids, first failure due to : {}",
+                    outcome.failureCount(), outcome.size(), outcome.failure(0));
+        }
+        return outcome;
+    }
+
+    public BulkOutcome warnUseCaseWorksDespiteExceptions(IntStream positiveIds) {
+        return warnUseCaseWorksDespiteExceptions(positiveIds.toArray());
+    }
+
+    /**
+     * Bulk variant of errorUseCaseFailsDueToException : all ids are processed, then a single BusinessDomainException is thrown
+     * if any failed, carrying the first failures as suppressed exceptions : what their call threw, if it threw.
+     */
+    public BulkOutcome errorUseCaseFailsDueToExceptions(int[] positiveIds) {
+        log.info("call external ressource for {} ids", positiveIds.length);
+        BulkOutcome outcome = bulkExecutor.execute(positiveIds, externalLib::conditionalOutcome);
+        if (!outcome.hasFailures()) {
+            return outcome;
+        }
+        BusinessDomainException failure = BusinessDomainException.aggregating("fail calling external library for "
+                + outcome.failureCount() + " of " + outcome.size() + " ids, first due to : " + outcome.failure(0).message());
+        for (int i = 0; i < outcome.failureCount() && i < MAX_SUPPRESSED_FAILURES; i++) {
+            RuntimeException thrown = outcome.failureThrown(i);
+            failure.addSuppressed(thrown != null ? thrown : outcome.failure(i).toException());
+        }
+        failureObserver.failed(failure);
+        logSink.log(log, Level.ERROR, "process fails due to : {}", failure.getMessage());
+        throw failure;
+    }
+
+    public BulkOutcome errorUseCaseFailsDueToExceptions(IntStream positiveIds) {
+        return errorUseCaseFailsDueToExceptions(positiveIds.toArray());
+    }
+
+    /**
+     * Sampled at the start of the call, before its duration is known : {@link #infoOnExit} catches the calls that turn out slow.
+     */
+    private static int sample(SuccessSampling.Sampler sampler) {
+        return log.isInfoEnabled() ? sampler.sample(0) : 0;
+    }
+
+    /**
+     * The last line of a call : written when sampled, or when the call was not but turned out slower than the slow threshold.
+     */
+    private static void infoOnExit(SuccessSampling.Sampler sampler, int sampled, long start, String message) {
+        if (sampled == 0 && log.isInfoEnabled()) {
+            long elapsed = System.nanoTime() - start;
+            if (sampler.isSlow(elapsed)) {
+                log.info("{} [slow, {} ms]", message, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+            return;
+        }
+        info(sampled, message);
+    }
+
+    /**
+     * Written when sampled, with its rate when it stands for more than one call.
+     */
+    private static void info(int sampled, String message) {
+        if (sampled == 1) {
+            log.info(message);
+        } else if (sampled > 1) {
+            log.info("{} [sampled 1 in {}]", message, sampled);
+        }
+    }
+
     public String failOnMissingRessources() {
 
         try (AutoCloseable file = new FailingResourceClosing()) {
             this.externalLib.throwChecked();
         } catch (Exception e) {
-            log.error("process failed due to ", e);
-            throw new BusinessDomainException("wrap checked in unchecked due to "+e.getMessage(), e);
+            failureObserver.failed(e);
+            SuppressedCloseEvent.recordAll("failOnMissingRessources", e);
+            logSink.log(log, Level.ERROR, "process failed due to ", e);
+            throw new BusinessDomainException(CHECKED_WRAPPED, e);
         } finally {
             log.debug("You don't need to close autocloseable resources.");
         }
         return "end of method";
     }
-    class FailingResourceClosing implements AutoCloseable {
+
+    /**
+     * Pooled variant of failOnMissingRessources : the ressource is borrowed instead of opened, and given back instead of closed.
+     * After a failure it is invalidated, so the pool closes it in the background : the failing close is reported by the pool
+     * to the failure observer, the request exception carries no suppressed exception.
+     */
+    public String failOnMissingPooledRessources() {
+        ResourcePool.Lease<AutoCloseable> ressource = null;
+        try {
+            ressource = ressources.lease(LEASE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            this.externalLib.throwChecked();
+        } catch (Exception e) {
+            if (ressource != null) {
+                ressource.invalidate();
+            }
+            failureObserver.failed(e);
+            logSink.log(log, Level.ERROR, "process failed due to ", e);
+            throw new BusinessDomainException(CHECKED_WRAPPED, e);
+        } finally {
+            if (ressource != null) {
+                ressource.close();
+            }
+        }
+        return "end of method";
+    }
+
+    public ResourcePool<AutoCloseable> ressources() {
+        return ressources;
+    }
+
+    static class FailingResourceClosing implements AutoCloseable {
         @Override
         public void close() throws Exception {
             throw new IOException("error at closing time");
@@ -0,0 +1,74 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.SuccessSampling;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import org.aspectj.lang.Aspects;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Endpoint aspects as beans. Built with the aspectj-ctw Maven profile, their advice is woven in the endpoint bytecode
+ * and AspectJ owns their instances : these are configured and exposed as is, Spring does not proxy anything for ajc compiled aspects.
+ * Otherwise they are plain Spring AOP aspects applied through proxies.
+ */
+@Configuration
+public class AspectsConfiguration {
+
+    @Bean
+    public LoggingInOuts loggingInOuts(LatencyMetrics latencyMetrics, LogSink logSink, FailureObserver failureObserver,
+                                       SuccessSampling successSampling) {
+        if (isWoven(LoggingInOuts.class)) {
+            LoggingInOuts woven = Aspects.aspectOf(LoggingInOuts.class);
+            woven.configure(latencyMetrics, logSink, failureObserver, successSampling);
+            return woven;
+        }
+        return new LoggingInOuts(latencyMetrics, logSink, failureObserver, successSampling);
+    }
+
+    @Bean
+    public TranslatingExceptions translatingExceptions(ExceptionTranslator exceptionTranslator, LogSink logSink) {
+        if (isWoven(TranslatingExceptions.class)) {
+            TranslatingExceptions woven = Aspects.aspectOf(TranslatingExceptions.class);
+            woven.configure(exceptionTranslator, logSink);
+            return woven;
+        }
+        return new TranslatingExceptions(exceptionTranslator, logSink);
+    }
+
+    /**
+     * The target advised by both endpoint aspects, outside of a Spring context : when woven, the AspectJ instances are
+     * configured with these collaborators and the target returned as is, otherwise new aspects are applied through a proxy.
+     * Woven instances are shared by the whole class loader, the last configuration wins.
+     */
+    public static <T> T advised(T target, ExceptionTranslator translator, LatencyMetrics latencyMetrics, LogSink logSink,
+                                FailureObserver failureObserver) {
+        boolean woven = isWoven(LoggingInOuts.class);
+        TranslatingExceptions translating = woven ? Aspects.aspectOf(TranslatingExceptions.class) : new TranslatingExceptions();
+        translating.configure(translator, logSink);
+        LoggingInOuts logging = woven ? Aspects.aspectOf(LoggingInOuts.class) : new LoggingInOuts();
+        logging.configure(latencyMetrics, logSink, failureObserver);
+        if (woven) {
+            return target;
+        }
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(translating);
+        factory.addAspect(logging);
+        return factory.getProxy();
+    }
+
+    /**
+     * True when AspectJ compiled or load time wove the aspect, so that it has a singleton instance.
+     */
+    public static boolean isWoven(Class<?> aspect) {
+        try {
+            return Aspects.hasAspect(aspect);
+        } catch (RuntimeException notAnAjcAspect) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.execution.BulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.execution.ForkJoinBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.execution.ThreadPerTaskBulkExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulk use cases call the store on the request thread by default.
+ * Set exceptions.bulk.executor=fork-join for CPU bound DAOs, or virtual-threads for blocking ones,
+ * exceptions.bulk.parallelism sizes the fork join pool or the platform threads fallback, 0 means one per core.
+ */
+@Configuration
+public class BulkExecutionConfiguration {
+
+    @Bean
+    public BulkExecutor bulkExecutor(@Value("${exceptions.bulk.executor:sequential}") String executor,
+                                     @Value("${exceptions.bulk.parallelism:0}") int parallelism,
+                                     @Value("${exceptions.bulk.fork-join-threshold:1024}") int threshold,
+                                     @Value("${exceptions.bulk.chunk-size:64}") int chunkSize) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        switch (executor) {
+            case "sequential":
+                return SequentialBulkExecutor.INSTANCE;
+            case "fork-join":
+                return new ForkJoinBulkExecutor(threads, threshold);
+            case "virtual-threads":
+                return ThreadPerTaskBulkExecutor.virtualThreads(threads, chunkSize);
+            default:
+                throw new IllegalArgumentException("Unknown exceptions.bulk.executor " + executor + ", expected sequential, fork-join or virtual-threads");
+        }
+    }
+}
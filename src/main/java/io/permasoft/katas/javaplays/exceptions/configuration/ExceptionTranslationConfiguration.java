@@ -0,0 +1,17 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Status of each failure kind answered by endpoints, replace this bean to map more failures.
+ */
+@Configuration
+public class ExceptionTranslationConfiguration {
+
+    @Bean
+    public ExceptionTranslator exceptionTranslator() {
+        return ExceptionTranslator.standard();
+    }
+}
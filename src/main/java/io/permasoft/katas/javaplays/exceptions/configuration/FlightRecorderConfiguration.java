@@ -0,0 +1,53 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionCatalog;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionFlightRecorder;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObservers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Every failure told to the catalog is also recorded by the flight recorder, off by default : set exceptions.flight-recorder.enabled=true.
+ * exceptions.flight-recorder.file defaults to exceptions-flight-[pid].rec in the temporary directory, suffixed when another
+ * application context of the same process already records there. The file is kept once closed, to be read after a crash :
+ * give a fixed file to reuse the same one across restarts instead of leaving one per process.
+ */
+@Configuration
+@ConditionalOnProperty(value = "exceptions.flight-recorder.enabled", havingValue = "true")
+public class FlightRecorderConfiguration {
+    private static final int MAX_DEFAULT_FILES = 16;
+
+    @Bean(destroyMethod = "close")
+    public ExceptionFlightRecorder exceptionFlightRecorder(@Value("${exceptions.flight-recorder.file:}") String file,
+                                                           @Value("${exceptions.flight-recorder.records:16384}") int records,
+                                                           @Value("${exceptions.flight-recorder.symbol-bytes:1048576}") int symbolBytes) throws IOException {
+        if (!file.isEmpty()) {
+            return ExceptionFlightRecorder.open(Paths.get(file), records, symbolBytes);
+        }
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"));
+        String name = "exceptions-flight-" + ProcessHandle.current().pid();
+        for (int i = 0; ; i++) {
+            try {
+                return ExceptionFlightRecorder.open(directory.resolve(i == 0 ? name + ".rec" : name + "-" + i + ".rec"), records, symbolBytes);
+            } catch (IOException inUse) {
+                if (i == MAX_DEFAULT_FILES - 1) {
+                    throw inUse;
+                }
+            }
+        }
+    }
+
+    @Bean
+    @Primary
+    public FailureObserver failureObservers(ExceptionCatalog exceptionCatalog, ExceptionFlightRecorder exceptionFlightRecorder) {
+        return FailureObservers.of(exceptionCatalog, exceptionFlightRecorder);
+    }
+}
@@ -0,0 +1,35 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionHttpServer;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Set exceptions.http.enabled=true to expose the endpoints over HTTP on exceptions.http.port,
+ * with exceptions.http.workers threads, 0 means two per core.
+ */
+@Configuration
+@ConditionalOnProperty("exceptions.http.enabled")
+public class HttpServerConfiguration {
+
+    @Bean(initMethod = "start")
+    public ExceptionHttpServer exceptionHttpServer(ExceptionEndPoint exceptionEndPoint,
+                                                   ExceptionTranslator exceptionTranslator,
+                                                   @Value("${exceptions.http.port:8080}") int port,
+                                                   @Value("${exceptions.http.workers:0}") int workers) throws IOException {
+        int threads = workers > 0 ? workers : 2 * Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory workerThreads = task -> new Thread(task, "http-worker-" + count.incrementAndGet());
+        return new ExceptionHttpServer(exceptionEndPoint, exceptionTranslator, new InetSocketAddress(port), Executors.newFixedThreadPool(threads, workerThreads));
+    }
+}
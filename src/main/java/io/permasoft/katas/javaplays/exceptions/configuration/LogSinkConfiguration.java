@@ -0,0 +1,34 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.logging.AsyncLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.DeduplicatingLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Failure paths log inline by default.
+ * Set logging.async.enabled=true to move formatting and I/O to a background thread,
+ * logging.dedup.enabled=true to log each distinct failure trace once per window and count the repeats.
+ */
+@Configuration
+public class LogSinkConfiguration {
+
+    @Bean
+    public LogSink logSink(@Value("${logging.async.enabled:false}") boolean async,
+                           @Value("${logging.async.capacity:8192}") int capacity,
+                           @Value("${logging.async.overflow:SUMMARIZE}") AsyncLogSink.Overflow overflow,
+                           @Value("${logging.async.batch-size:256}") int batchSize,
+                           @Value("${logging.dedup.enabled:false}") boolean dedup,
+                           @Value("${logging.dedup.window-millis:60000}") long windowMillis,
+                           @Value("${logging.dedup.summary-millis:10000}") long summaryMillis,
+                           @Value("${logging.dedup.max-fingerprints:10000}") int maxFingerprints) {
+        LogSink sink = async ? new AsyncLogSink(capacity, overflow, batchSize) : InlineLogSink.INSTANCE;
+        if (dedup) {
+            sink = new DeduplicatingLogSink(sink, windowMillis, summaryMillis, maxFingerprints);
+        }
+        return sink;
+    }
+}
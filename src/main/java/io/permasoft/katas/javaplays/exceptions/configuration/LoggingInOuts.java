@@ -1,45 +1,149 @@
 package io.permasoft.katas.javaplays.exceptions.configuration;
 
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.SuccessSampling;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.monitoring.RollingLatency;
+import io.permasoft.katas.javaplays.exceptions.monitoring.events.EndpointCallEvent;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
+import org.slf4j.event.Level;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Logger and signature are resolved once per advised method, arguments and results are only rendered when their level is enabled :
+ * with DEBUG and INFO off, the success path of this advice allocates nothing on its own.
+ * Failures are handed to the {@link LogSink}, which may render them on another thread.
+ * Every call latency is also recorded in {@link LatencyMetrics}, and every failure told to the {@link FailureObserver}, whatever the log level.
+ * Calls are Java Flight Recorder {@link EndpointCallEvent}s as well.
+ * Success lines are written as decided by the {@link SuccessSampling} of the method, which logs every call unless configured otherwise.
+ * <p>
+ * Applied by Spring proxies, or woven at build time with the aspectj-ctw Maven profile : AspectJ then creates the single instance
+ * with the no argument constructor, and {@link AspectsConfiguration} configures it.
+ */
 @Aspect
-@Component
 public class LoggingInOuts {
-    @Around("@annotation(io.permasoft.katas.javaplays.exceptions.configuration.Logging)")
+    private final ConcurrentMap<Method, JoinPointLogging> joinPoints = new ConcurrentHashMap<>();
+    private volatile LatencyMetrics latencyMetrics;
+    private volatile LogSink logSink;
+    private volatile FailureObserver failureObserver;
+    private volatile SuccessSampling successSampling;
+
+    public LoggingInOuts() {
+        this(new LatencyMetrics(), InlineLogSink.INSTANCE, FailureObserver.NONE);
+    }
+
+    public LoggingInOuts(LatencyMetrics latencyMetrics, LogSink logSink, FailureObserver failureObserver) {
+        this(latencyMetrics, logSink, failureObserver, new SuccessSampling());
+    }
+
+    public LoggingInOuts(LatencyMetrics latencyMetrics, LogSink logSink, FailureObserver failureObserver, SuccessSampling successSampling) {
+        configure(latencyMetrics, logSink, failureObserver, successSampling);
+    }
+
+    public void configure(LatencyMetrics latencyMetrics, LogSink logSink, FailureObserver failureObserver) {
+        configure(latencyMetrics, logSink, failureObserver, new SuccessSampling());
+    }
+
+    public void configure(LatencyMetrics latencyMetrics, LogSink logSink, FailureObserver failureObserver, SuccessSampling successSampling) {
+        this.latencyMetrics = latencyMetrics;
+        this.logSink = logSink;
+        this.failureObserver = failureObserver;
+        this.successSampling = successSampling;
+        joinPoints.clear();
+    }
+
+    /**
+     * execution only : AspectJ would otherwise also advise every call site of a @Logging method, Spring proxies only know executions.
+     */
+    @Around("@annotation(io.permasoft.katas.javaplays.exceptions.configuration.Logging) && execution(* *(..))")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        Logger logger = LoggerFactory.getLogger(joinPoint.getTarget().getClass());
-        String joinPointLog = joinPoint.toString();
-        String joinPointArgs = Arrays.deepToString(joinPoint.getArgs());
-        logger.debug("receiving request for {} with arguments {}",
-                joinPointLog,
-                joinPointArgs);
+        EndpointCallEvent call = new EndpointCallEvent();
+        call.begin();
+        long startTime = System.nanoTime();
+        JoinPointLogging joinPointLogging = joinPointLogging(joinPoint);
+        Logger logger = joinPointLogging.logger;
+        if (logger.isDebugEnabled()) {
+            logger.debug("receiving request for {} with arguments {}",
+                    joinPointLogging.signature,
+                    Arrays.deepToString(joinPoint.getArgs()));
+        }
         try {
             Object result = joinPoint.proceed();
-            long endTime = System.currentTimeMillis();
-            logger.info("processed request in {} ms for {} with arguments {} returned {}",
-                    endTime - startTime,
-                    joinPointLog,
-                    joinPointArgs,
-                    result);
+            long elapsed = System.nanoTime() - startTime;
+            joinPointLogging.latency.record(elapsed, null);
+            call.recordSuccess(joinPointLogging.signature);
+            int sampled = logger.isInfoEnabled() ? joinPointLogging.sampler.sample(elapsed) : 0;
+            if (sampled == 1) {
+                logger.info("processed request in {} ms for {} with arguments {} returned {}",
+                        TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        joinPointLogging.signature,
+                        Arrays.deepToString(joinPoint.getArgs()),
+                        result);
+            } else if (sampled > 1) {
+                logger.info("processed request in {} ms for {} with arguments {} returned {} [sampled 1 in {}]",
+                        TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        joinPointLogging.signature,
+                        Arrays.deepToString(joinPoint.getArgs()),
+                        result,
+                        sampled);
+            }
             return result;
         } catch (Throwable t) {
-            long endTime = System.currentTimeMillis();
-            logger.error("failed request in {} ms for {} with arguments {} throwing ",
-                    endTime - startTime,
-                    joinPointLog,
-                    joinPointArgs,
-                    t);
+            long elapsed = System.nanoTime() - startTime;
+            joinPointLogging.latency.record(elapsed, t);
+            call.recordThrown(joinPointLogging.signature, t);
+            failureObserver.failed(t);
+            if (logger.isErrorEnabled()) {
+                logSink.log(logger, Level.ERROR, "failed request in {} ms for {} with arguments {} throwing ",
+                        TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        joinPointLogging.signature,
+                        Arrays.deepToString(joinPoint.getArgs()),
+                        t);
+            }
             // Rest Handler can return a 500 status with a problem media type with t.getMessage as their content
             throw t;
         }
     }
+
+    private JoinPointLogging joinPointLogging(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        JoinPointLogging joinPointLogging = joinPoints.get(method);
+        if (joinPointLogging == null) {
+            joinPointLogging = joinPoints.computeIfAbsent(method, m -> {
+                String name = m.getDeclaringClass().getSimpleName() + "." + m.getName();
+                return new JoinPointLogging(
+                        LoggerFactory.getLogger(joinPoint.getTarget().getClass()),
+                        joinPoint.toString(),
+                        latencyMetrics.latency(name),
+                        successSampling.sampler(name));
+            });
+        }
+        return joinPointLogging;
+    }
+
+    private static final class JoinPointLogging {
+        private final Logger logger;
+        private final String signature;
+        private final RollingLatency latency;
+        private final SuccessSampling.Sampler sampler;
+
+        private JoinPointLogging(Logger logger, String signature, RollingLatency latency, SuccessSampling.Sampler sampler) {
+            this.logger = logger;
+            this.signature = signature;
+            this.latency = latency;
+            this.sampler = sampler;
+        }
+    }
 }
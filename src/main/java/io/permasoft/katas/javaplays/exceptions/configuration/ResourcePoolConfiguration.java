@@ -0,0 +1,41 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.resources.ResourcePool;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of the ressources of ExceptionUseCases, up to exceptions.pool.max-size of them, 64 by default.
+ * They are recycled and closed by exceptions.pool.recyclers daemon threads of their own, 1 by default,
+ * not on the common fork join pool : the pool is closed then its threads shut down with the context.
+ */
+@Configuration
+public class ResourcePoolConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ressourcePoolRecyclers(@Value("${exceptions.pool.recyclers:1}") int recyclers) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory recyclerThreads = task -> {
+            Thread thread = new Thread(task, "ressource-pool-recycler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(recyclers, recyclerThreads);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ResourcePool<AutoCloseable> exceptionUseCasesRessources(@Value("${exceptions.pool.max-size:64}") int maxSize,
+                                                                   @Qualifier("ressourcePoolRecyclers") ExecutorService ressourcePoolRecyclers,
+                                                                   FailureObserver failureObserver) {
+        return ExceptionUseCases.ressourcePool(maxSize, ressourcePoolRecyclers, failureObserver);
+    }
+}
@@ -0,0 +1,37 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import io.permasoft.katas.javaplays.exceptions.persistence.segmentlog.SegmentLog;
+import io.permasoft.katas.javaplays.exceptions.persistence.segmentlog.SegmentLogExceptionDao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * With the segment-log profile, ExceptionDao stores to a local segment log instead of echoing ids back.
+ * exceptions.segment-log.directory defaults to exceptions-segment-log in the temporary directory, sync-on-write to true :
+ * every store waits for the group commit covering it.
+ */
+@Configuration
+@Profile("segment-log")
+public class SegmentLogConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SegmentLog segmentLog(@Value("${exceptions.segment-log.directory:${java.io.tmpdir}/exceptions-segment-log}") String directory,
+                                 @Value("${exceptions.segment-log.records-per-segment:1048576}") int recordsPerSegment,
+                                 @Value("${exceptions.segment-log.max-segments:8}") int maxSegments,
+                                 @Value("${exceptions.segment-log.sync-on-write:true}") boolean syncOnWrite) throws IOException {
+        return SegmentLog.open(Paths.get(directory), recordsPerSegment, maxSegments, syncOnWrite);
+    }
+
+    @Bean
+    @Primary
+    public ExceptionDao segmentLogExceptionDao(SegmentLog segmentLog) {
+        return new SegmentLogExceptionDao(segmentLog);
+    }
+}
@@ -0,0 +1,33 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Switch exceptions thrown in failure storms to stackless mode, per exception type, e.g. :
+ * <pre>
+ * exceptions.stack-traces.library-invalid.stackless=true
+ * exceptions.stack-traces.library-invalid.full-traces-first=100
+ * </pre>
+ */
+@Configuration
+public class StackTraceConfiguration {
+    @Value("${exceptions.stack-traces.business-domain.stackless:false}")
+    private boolean businessDomainStackless;
+    @Value("${exceptions.stack-traces.business-domain.full-traces-first:100}")
+    private long businessDomainFullTracesFirst;
+    @Value("${exceptions.stack-traces.library-invalid.stackless:false}")
+    private boolean libraryInvalidStackless;
+    @Value("${exceptions.stack-traces.library-invalid.full-traces-first:100}")
+    private long libraryInvalidFullTracesFirst;
+
+    @PostConstruct
+    void configureStackTracePolicies() {
+        BusinessDomainException.STACK_TRACES.configure(businessDomainStackless, businessDomainFullTracesFirst);
+        YourUseOfMyLibraryIsInvalid.STACK_TRACES.configure(libraryInvalidStackless, libraryInvalidFullTracesFirst);
+    }
+}
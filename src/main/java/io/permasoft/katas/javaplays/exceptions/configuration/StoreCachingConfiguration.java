@@ -0,0 +1,29 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.persistence.CachingExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.StoreGuards;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Set exceptions.store.cache.enabled=true to answer repeated ids, valid or not, from memory :
+ * the caching store takes precedence over the plain one wherever an ExceptionStore is injected.
+ */
+@Configuration
+@ConditionalOnProperty("exceptions.store.cache.enabled")
+public class StoreCachingConfiguration {
+
+    @Bean
+    @Primary
+    public CachingExceptionStore cachingExceptionStore(ExceptionDao exceptionDao,
+                                                       StoreGuards storeGuards,
+                                                       @Value("${exceptions.store.cache.max-size:10000}") int maxSize,
+                                                       @Value("${exceptions.store.cache.ttl-millis:60000}") long ttlMillis,
+                                                       @Value("${exceptions.store.cache.negative-ttl-millis:10000}") long negativeTtlMillis) {
+        return new CachingExceptionStore(exceptionDao, storeGuards, maxSize, ttlMillis, negativeTtlMillis);
+    }
+}
@@ -0,0 +1,48 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.persistence.StoreGuards;
+import io.permasoft.katas.javaplays.exceptions.persistence.StoreMethod;
+import io.permasoft.katas.javaplays.exceptions.resilience.Bulkhead;
+import io.permasoft.katas.javaplays.exceptions.resilience.CircuitBreaker;
+import io.permasoft.katas.javaplays.exceptions.resilience.Guard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ExceptionStore methods call the DAO unguarded by default.
+ * List the methods to guard in exceptions.store.guard.methods, e.g. conditionalThrow,throwUnchecked.
+ * Settings are read from exceptions.store.guard.[method].[setting], then exceptions.store.guard.[setting] :
+ * window-size, minimum-calls, failure-rate-percent, open-millis, half-open-calls and max-concurrent-calls.
+ */
+@Configuration
+public class StoreGuardsConfiguration {
+    private static final String PREFIX = "exceptions.store.guard.";
+
+    @Bean
+    public StoreGuards storeGuards(Environment environment, @Value("${" + PREFIX + "methods:}") String[] methods) {
+        Map<StoreMethod, Guard> guards = new EnumMap<>(StoreMethod.class);
+        for (String methodName : methods) {
+            StoreMethod method = StoreMethod.of(methodName.trim());
+            String name = "ExceptionStore." + method.methodName();
+            CircuitBreaker circuitBreaker = new CircuitBreaker(name,
+                    setting(environment, method, "window-size", 100),
+                    setting(environment, method, "minimum-calls", 20),
+                    setting(environment, method, "failure-rate-percent", 50),
+                    setting(environment, method, "open-millis", 5000),
+                    setting(environment, method, "half-open-calls", 5));
+            Bulkhead bulkhead = new Bulkhead(name, setting(environment, method, "max-concurrent-calls", 64));
+            guards.put(method, new Guard(circuitBreaker, bulkhead));
+        }
+        return new StoreGuards(guards);
+    }
+
+    private static int setting(Environment environment, StoreMethod method, String setting, int defaultValue) {
+        Integer shared = environment.getProperty(PREFIX + setting, Integer.class, defaultValue);
+        return environment.getProperty(PREFIX + method.methodName() + "." + setting, Integer.class, shared);
+    }
+}
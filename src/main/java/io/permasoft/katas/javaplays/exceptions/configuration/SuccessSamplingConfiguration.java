@@ -0,0 +1,44 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.logging.SuccessSampling;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.management.JMException;
+
+/**
+ * Success lines of the endpoint aspect and of the use cases are all written by default.
+ * logging.sampling.rate writes one call in N, logging.sampling.rates overrides it per method,
+ * as ExceptionEndPoint.endPointSucceedsHandledByFramework=100,ExceptionUseCases.warnUseCaseWorksDespiteException=10.
+ * logging.sampling.max-lines-per-second raises the rate of a method while it is called faster, calls slower than
+ * logging.sampling.slow-millis are always written. All of them can be changed at runtime through the SuccessSampling MBean.
+ */
+@Configuration
+public class SuccessSamplingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SuccessSampling successSampling(@Value("${logging.sampling.rate:1}") int rate,
+                                           @Value("${logging.sampling.rates:}") String rates,
+                                           @Value("${logging.sampling.max-lines-per-second:0}") long maxLinesPerSecond,
+                                           @Value("${logging.sampling.slow-millis:100}") long slowMillis,
+                                           @Value("${logging.sampling.jmx:true}") boolean jmx) throws JMException {
+        SuccessSampling sampling = new SuccessSampling();
+        sampling.setDefaultRate(rate);
+        for (String methodRate : rates.split(",")) {
+            if (!methodRate.isBlank()) {
+                int equals = methodRate.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException("expected method=rate in logging.sampling.rates, got " + methodRate);
+                }
+                sampling.setRate(methodRate.substring(0, equals).trim(), Integer.parseInt(methodRate.substring(equals + 1).trim()));
+            }
+        }
+        sampling.setMaxLinesPerSecond(maxLinesPerSecond);
+        sampling.setSlowThresholdMillis(slowMillis);
+        if (jmx) {
+            sampling.registerMBean();
+        }
+        return sampling;
+    }
+}
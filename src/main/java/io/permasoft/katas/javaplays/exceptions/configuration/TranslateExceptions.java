@@ -0,0 +1,16 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Endpoint method answering its exceptions as error responses, rendered by the ExceptionTranslator, instead of throwing them.
+ * The method shall return a String or an ErrorResponse compatible type.
+ */
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface TranslateExceptions {
+}
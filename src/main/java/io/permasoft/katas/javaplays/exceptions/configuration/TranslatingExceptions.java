@@ -0,0 +1,57 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import io.permasoft.katas.javaplays.exceptions.api.ErrorResponse;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.logging.LogSink;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.core.annotation.Order;
+
+/**
+ * The catch late part of throwEarlyCatchLate, once for all endpoints : exceptions of @TranslateExceptions methods are logged
+ * and answered as error responses. Runs outside of {@link LoggingInOuts}, which still sees and measures the failure.
+ * Errors are not caught, the application cannot keep running after them.
+ * Proxied or woven at build time, like {@link LoggingInOuts}.
+ */
+@Aspect
+@Order(0)
+public class TranslatingExceptions {
+    private static final Logger log = LoggerFactory.getLogger(TranslatingExceptions.class);
+
+    private volatile ExceptionTranslator translator;
+    private volatile LogSink logSink;
+
+    public TranslatingExceptions() {
+        this(ExceptionTranslator.standard(), InlineLogSink.INSTANCE);
+    }
+
+    public TranslatingExceptions(ExceptionTranslator translator, LogSink logSink) {
+        configure(translator, logSink);
+    }
+
+    public void configure(ExceptionTranslator translator, LogSink logSink) {
+        this.translator = translator;
+        this.logSink = logSink;
+    }
+
+    @Around("@annotation(io.permasoft.katas.javaplays.exceptions.configuration.TranslateExceptions) && execution(* *(..))")
+    public Object translateExceptions(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (Exception any) {
+            Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+            if (returnType != String.class && !returnType.isAssignableFrom(ErrorResponse.class)) {
+                throw any;
+            }
+            ErrorResponse response = translator.translate(any);
+            logSink.log(log, Level.ERROR, "{} answered {} due to :", joinPoint.getSignature().getName(), response.status(), any);
+            return returnType == String.class ? response.body() : response;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.permasoft.katas.javaplays.exceptions.configuration;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.DeclarePrecedence;
+
+/**
+ * Order of the endpoint aspects when woven at build time, as @Order does for Spring proxies : translation outside of logging.
+ * Never registered as a bean, Spring AOP does not support DeclarePrecedence.
+ */
+@Aspect
+@DeclarePrecedence("TranslatingExceptions, LoggingInOuts")
+public class WovenAspectsPrecedence {
+}
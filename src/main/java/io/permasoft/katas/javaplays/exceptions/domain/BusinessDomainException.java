@@ -1,11 +1,95 @@
 package io.permasoft.katas.javaplays.exceptions.domain;
 
-public class BusinessDomainException extends RuntimeException {
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
+import io.permasoft.katas.javaplays.exceptions.support.StackTracePolicy;
+import io.permasoft.katas.javaplays.exceptions.support.TemplatedMessage;
+
+public class BusinessDomainException extends RuntimeException implements TemplatedMessage {
+    public static final StackTracePolicy STACK_TRACES = new StackTracePolicy();
+
+    private final MessageTemplate template;
+    private final long[] arguments;
+    /**
+     * Benign race : not volatile, a thread may miss the memo of another and render the same text again.
+     * It never sees a partly built message, String is immutable and safely published through its final fields.
+     */
+    private String message;
+
     public BusinessDomainException(String message) {
-        super(message);
+        this(message, null);
     }
 
     public BusinessDomainException(String message, Throwable cause) {
-        super(message, cause);
+        this(message, cause, STACK_TRACES.captureStackTrace());
+    }
+
+    protected BusinessDomainException(String message, Throwable cause, boolean writableStackTrace) {
+        this(message, cause, writableStackTrace, writableStackTrace);
+    }
+
+    protected BusinessDomainException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+        this.template = null;
+        this.arguments = null;
+    }
+
+    /**
+     * The message is only rendered when read, from the template, the arguments and the message of the cause for {cause}.
+     */
+    public BusinessDomainException(MessageTemplate template, Throwable cause, long... arguments) {
+        this(template, cause, STACK_TRACES.captureStackTrace(), arguments);
+    }
+
+    protected BusinessDomainException(MessageTemplate template, Throwable cause, boolean writableStackTrace, long... arguments) {
+        super(null, cause, writableStackTrace, writableStackTrace);
+        this.template = template;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Single failure standing for many : add each underlying failure with addSuppressed,
+     * suppression stays enabled even when the stack trace policy is stackless.
+     */
+    public static BusinessDomainException aggregating(String message) {
+        return new BusinessDomainException(message, null, true, STACK_TRACES.captureStackTrace());
+    }
+
+    /**
+     * Shared immutable instance for a well known failure : no stack trace, no suppressed exceptions, no cause to init later.
+     * Create it once in a constant and throw it as often as needed.
+     */
+    public static BusinessDomainException preallocated(String message) {
+        return new BusinessDomainException(message, null, false);
+    }
+
+    /**
+     * Rendered on first call only, then memoized.
+     */
+    @Override
+    public String getMessage() {
+        if (template == null) {
+            return super.getMessage();
+        }
+        String rendered = message;
+        if (rendered == null) {
+            rendered = template.render(getCause(), arguments);
+            message = rendered;
+        }
+        return rendered;
+    }
+
+    @Override
+    public MessageTemplate messageTemplate() {
+        return template;
+    }
+
+    @Override
+    public void formatMessageTo(StringBuilder out) {
+        String rendered = template == null ? super.getMessage() : message;
+        if (rendered == null && template != null) {
+            template.renderTo(out, getCause(), arguments);
+        } else {
+            out.append(rendered);
+        }
     }
 }
@@ -0,0 +1,24 @@
+package io.permasoft.katas.javaplays.exceptions.execution;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+
+import java.util.function.IntFunction;
+
+/**
+ * Runs one library call per id and gathers the outcomes in input order, whatever the threads doing the calls.
+ * Failures reported as outcomes end up in the result failure table, so do RuntimeExceptions thrown by a call :
+ * as a {@link io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason#CALL_FAILED} entry keeping the exception,
+ * the other calls go on. An Error cancels the calls not started yet and is rethrown to the caller once.
+ */
+public interface BulkExecutor extends AutoCloseable {
+
+    BulkOutcome execute(int[] ids, IntFunction<IntOutcome> call);
+
+    /**
+     * Releases the threads owned by this executor, if any.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,99 @@
+package io.permasoft.katas.javaplays.exceptions.execution;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * One slot per id, written by whichever thread runs its call : threads work on disjoint ranges so slots need no synchronization,
+ * the executor publishes them by joining its tasks before {@link #toOutcome()}.
+ * A RuntimeException thrown by a call only fails its own slot, kept for the failure table of the outcome.
+ * The first Error wins and makes every running range stop at its next id.
+ */
+final class BulkSlots {
+    private final int[] ids;
+    private final int[] values;
+    private final FailureReason[] reasons;
+    private final AtomicReference<RuntimeException[]> thrown = new AtomicReference<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    BulkSlots(int[] ids) {
+        this.ids = ids;
+        this.values = new int[ids.length];
+        this.reasons = new FailureReason[ids.length];
+    }
+
+    boolean failed() {
+        return failure.get() != null;
+    }
+
+    void run(int from, int to, IntFunction<IntOutcome> call) {
+        try {
+            for (int i = from; i < to && failure.get() == null; i++) {
+                IntOutcome outcome;
+                try {
+                    outcome = call.apply(ids[i]);
+                } catch (RuntimeException e) {
+                    thrown()[i] = e;
+                    reasons[i] = FailureReason.CALL_FAILED;
+                    values[i] = ids[i];
+                    continue;
+                }
+                if (outcome.isSuccess()) {
+                    values[i] = outcome.getAsInt();
+                } else {
+                    IntOutcome.Failure failed = (IntOutcome.Failure) outcome;
+                    values[i] = failed.input();
+                    reasons[i] = failed.reason();
+                }
+            }
+        } catch (Error e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Allocated by the first call that throws, then shared : each thread only writes the slots of its own range.
+     */
+    private RuntimeException[] thrown() {
+        RuntimeException[] slots = thrown.get();
+        if (slots == null) {
+            thrown.compareAndSet(null, new RuntimeException[ids.length]);
+            slots = thrown.get();
+        }
+        return slots;
+    }
+
+    void fail(Throwable t) {
+        failure.compareAndSet(null, t);
+    }
+
+    BulkOutcome toOutcome() {
+        Throwable thrown = failure.get();
+        if (thrown instanceof Error) {
+            throw (Error) thrown;
+        }
+        if (thrown instanceof RuntimeException) {
+            throw (RuntimeException) thrown;
+        }
+        if (thrown != null) {
+            throw new UndeclaredThrowableException(thrown);
+        }
+        RuntimeException[] thrownByCalls = this.thrown.get();
+        BulkOutcome.Builder outcomes = BulkOutcome.builder(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (reasons[i] == null) {
+                outcomes.success(values[i]);
+            } else if (thrownByCalls != null && thrownByCalls[i] != null) {
+                outcomes.thrown(values[i], thrownByCalls[i]);
+            } else {
+                outcomes.failure(reasons[i], values[i]);
+            }
+        }
+        return outcomes.build();
+    }
+}
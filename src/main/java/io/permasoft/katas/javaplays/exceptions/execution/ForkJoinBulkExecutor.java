@@ -0,0 +1,71 @@
+package io.permasoft.katas.javaplays.exceptions.execution;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * For CPU bound calls : ids are split in halves until ranges are below the threshold, idle workers steal the pending halves.
+ * Owns its pool, unless given the common pool.
+ */
+public final class ForkJoinBulkExecutor implements BulkExecutor {
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ForkJoinBulkExecutor() {
+        this(ForkJoinPool.commonPool(), 1024);
+    }
+
+    public ForkJoinBulkExecutor(int parallelism, int threshold) {
+        this(new ForkJoinPool(parallelism), threshold);
+    }
+
+    ForkJoinBulkExecutor(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    @Override
+    public BulkOutcome execute(int[] ids, IntFunction<IntOutcome> call) {
+        BulkSlots slots = new BulkSlots(ids);
+        pool.invoke(new Range(slots, call, 0, ids.length));
+        return slots.toOutcome();
+    }
+
+    @Override
+    public void close() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    private final class Range extends RecursiveAction {
+        private final BulkSlots slots;
+        private final IntFunction<IntOutcome> call;
+        private final int from;
+        private final int to;
+
+        private Range(BulkSlots slots, IntFunction<IntOutcome> call, int from, int to) {
+            this.slots = slots;
+            this.call = call;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (slots.failed()) {
+                return;
+            }
+            if (to - from <= threshold) {
+                slots.run(from, to, call);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(slots, call, from, middle), new Range(slots, call, middle, to));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.permasoft.katas.javaplays.exceptions.execution;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+
+import java.util.function.IntFunction;
+
+/**
+ * All calls on the caller thread, an Error stops the batch.
+ */
+public final class SequentialBulkExecutor implements BulkExecutor {
+    public static final SequentialBulkExecutor INSTANCE = new SequentialBulkExecutor();
+
+    private SequentialBulkExecutor() {
+    }
+
+    @Override
+    public BulkOutcome execute(int[] ids, IntFunction<IntOutcome> call) {
+        BulkOutcome.Builder outcomes = BulkOutcome.builder(ids.length);
+        for (int id : ids) {
+            IntOutcome outcome;
+            try {
+                outcome = call.apply(id);
+            } catch (RuntimeException e) {
+                outcomes.thrown(id, e);
+                continue;
+            }
+            outcomes.add(outcome);
+        }
+        return outcomes.build();
+    }
+}
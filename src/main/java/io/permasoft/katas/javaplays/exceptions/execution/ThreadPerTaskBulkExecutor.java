@@ -0,0 +1,100 @@
+package io.permasoft.katas.javaplays.exceptions.execution;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * For blocking calls : one task per chunk of ids, so a slow call only holds its own thread.
+ * Runs on virtual threads when the JDK provides them, looked up at runtime since this code targets Java 11,
+ * else on a fixed pool of platform threads.
+ * An Error cancels the chunks still pending and interrupts the running ones.
+ */
+public final class ThreadPerTaskBulkExecutor implements BulkExecutor {
+    private static final Logger log = LoggerFactory.getLogger(ThreadPerTaskBulkExecutor.class);
+
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final boolean virtual;
+
+    public ThreadPerTaskBulkExecutor(ExecutorService executor, int chunkSize) {
+        this(executor, chunkSize, false);
+    }
+
+    private ThreadPerTaskBulkExecutor(ExecutorService executor, int chunkSize, boolean virtual) {
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.virtual = virtual;
+    }
+
+    /**
+     * Virtual thread per task if available, otherwise a pool of fallbackThreads platform threads.
+     */
+    public static ThreadPerTaskBulkExecutor virtualThreads(int fallbackThreads, int chunkSize) {
+        try {
+            ExecutorService virtualThreads = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            return new ThreadPerTaskBulkExecutor(virtualThreads, chunkSize, true);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            log.info("virtual threads unavailable on this JDK, running bulk calls on {} platform threads", fallbackThreads);
+            return new ThreadPerTaskBulkExecutor(Executors.newFixedThreadPool(fallbackThreads, daemonThreads()), chunkSize, false);
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public BulkOutcome execute(int[] ids, IntFunction<IntOutcome> call) {
+        BulkSlots slots = new BulkSlots(ids);
+        List<Future<?>> chunks = new ArrayList<>(ids.length / chunkSize + 1);
+        try {
+            for (int from = 0; from < ids.length && !slots.failed(); from += chunkSize) {
+                int start = from;
+                int end = Math.min(ids.length, from + chunkSize);
+                chunks.add(executor.submit(() -> slots.run(start, end, call)));
+            }
+            for (int i = 0; i < chunks.size() && !slots.failed(); i++) {
+                chunks.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slots.fail(new CancellationException("bulk execution interrupted"));
+        } catch (ExecutionException | RuntimeException e) {
+            slots.fail(e instanceof ExecutionException ? e.getCause() : e);
+        }
+        if (slots.failed()) {
+            for (Future<?> chunk : chunks) {
+                chunk.cancel(true);
+            }
+        }
+        return slots.toOutcome();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "bulk-executor-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
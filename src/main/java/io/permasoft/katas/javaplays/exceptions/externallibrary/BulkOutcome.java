@@ -0,0 +1,186 @@
+package io.permasoft.katas.javaplays.exceptions.externallibrary;
+
+import java.util.Arrays;
+
+/**
+ * Outcomes of many library calls in a few primitive arrays : success values in input order,
+ * and a failure table of input index, reason code and input. Nothing is allocated per successful call.
+ * A {@link FailureReason#CALL_FAILED} entry also keeps what its call threw, the table of thrown exceptions only exists once one did.
+ */
+public final class BulkOutcome {
+    private final int size;
+    private final int[] successes;
+    private final int successCount;
+    private final int[] failureIndexes;
+    private final FailureReason[] failureReasons;
+    private final int[] failureInputs;
+    private final RuntimeException[] failureThrown;
+    private final int failureCount;
+
+    private BulkOutcome(Builder builder) {
+        this.size = builder.size;
+        this.successes = builder.successes;
+        this.successCount = builder.successCount;
+        this.failureIndexes = builder.failureIndexes;
+        this.failureReasons = builder.failureReasons;
+        this.failureInputs = builder.failureInputs;
+        this.failureThrown = builder.failureThrown;
+        this.failureCount = builder.failureCount;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int successCount() {
+        return successCount;
+    }
+
+    public int failureCount() {
+        return failureCount;
+    }
+
+    public boolean hasFailures() {
+        return failureCount > 0;
+    }
+
+    /**
+     * Values of successful calls only, in input order.
+     */
+    public int[] successes() {
+        return Arrays.copyOf(successes, successCount);
+    }
+
+    public int success(int i) {
+        checkIndex(i, successCount);
+        return successes[i];
+    }
+
+    /**
+     * Position in the input of the i-th failure.
+     */
+    public int failureIndex(int i) {
+        checkIndex(i, failureCount);
+        return failureIndexes[i];
+    }
+
+    public FailureReason failureReason(int i) {
+        checkIndex(i, failureCount);
+        return failureReasons[i];
+    }
+
+    public int failureInput(int i) {
+        checkIndex(i, failureCount);
+        return failureInputs[i];
+    }
+
+    /**
+     * What the call of the i-th failure threw, null when it answered with a failure outcome.
+     */
+    public RuntimeException failureThrown(int i) {
+        checkIndex(i, failureCount);
+        return failureThrown == null ? null : failureThrown[i];
+    }
+
+    /**
+     * The i-th failure as a single outcome, its message rendered only when asked.
+     */
+    public IntOutcome.Failure failure(int i) {
+        checkIndex(i, failureCount);
+        return IntOutcome.failure(failureReasons[i], failureInputs[i]);
+    }
+
+    @Override
+    public String toString() {
+        return successCount + " successes, " + failureCount + " failures out of " + size + " calls";
+    }
+
+    private static void checkIndex(int i, int count) {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + count);
+        }
+    }
+
+    /**
+     * Single threaded : fill it from one thread then build it, the outcome is read only and can be shared.
+     */
+    public static final class Builder {
+        private int size;
+        private int[] successes;
+        private int successCount;
+        private int[] failureIndexes = new int[8];
+        private FailureReason[] failureReasons = new FailureReason[8];
+        private int[] failureInputs = new int[8];
+        private RuntimeException[] failureThrown;
+        private int failureCount;
+        private boolean built;
+
+        private Builder(int expectedSize) {
+            this.successes = new int[Math.max(expectedSize, 8)];
+        }
+
+        public Builder add(IntOutcome outcome) {
+            if (outcome.isSuccess()) {
+                return success(outcome.getAsInt());
+            }
+            IntOutcome.Failure failure = (IntOutcome.Failure) outcome;
+            return failure(failure.reason(), failure.input());
+        }
+
+        public Builder success(int value) {
+            checkNotBuilt();
+            if (successCount == successes.length) {
+                successes = Arrays.copyOf(successes, successCount * 2);
+            }
+            successes[successCount++] = value;
+            size++;
+            return this;
+        }
+
+        public Builder failure(FailureReason reason, int input) {
+            checkNotBuilt();
+            if (failureCount == failureIndexes.length) {
+                failureIndexes = Arrays.copyOf(failureIndexes, failureCount * 2);
+                failureReasons = Arrays.copyOf(failureReasons, failureCount * 2);
+                failureInputs = Arrays.copyOf(failureInputs, failureCount * 2);
+                if (failureThrown != null) {
+                    failureThrown = Arrays.copyOf(failureThrown, failureCount * 2);
+                }
+            }
+            failureIndexes[failureCount] = size;
+            failureReasons[failureCount] = reason;
+            failureInputs[failureCount] = input;
+            failureCount++;
+            size++;
+            return this;
+        }
+
+        /**
+         * A {@link FailureReason#CALL_FAILED} entry for a call that threw instead of answering.
+         */
+        public Builder thrown(int input, RuntimeException thrown) {
+            failure(FailureReason.CALL_FAILED, input);
+            if (failureThrown == null) {
+                failureThrown = new RuntimeException[failureIndexes.length];
+            }
+            failureThrown[failureCount - 1] = thrown;
+            return this;
+        }
+
+        public BulkOutcome build() {
+            checkNotBuilt();
+            built = true;
+            return new BulkOutcome(this);
+        }
+
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("bulk outcome already built");
+            }
+        }
+    }
+}
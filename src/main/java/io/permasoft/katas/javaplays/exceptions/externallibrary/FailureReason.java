@@ -0,0 +1,56 @@
+package io.permasoft.katas.javaplays.exceptions.externallibrary;
+
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
+
+/**
+ * Reason codes for expected failures reported as values instead of exceptions.
+ */
+public enum FailureReason {
+    NEGATIVE_INPUT("Negative input[{}] is invalid", false) {
+        @Override
+        YourUseOfMyLibraryIsInvalid toException(int input) {
+            return YourUseOfMyLibraryIsInvalid.negativeInput(input);
+        }
+    },
+    NOT_FOUND("No value stored for id[{}]", false) {
+        @Override
+        YourUseOfMyLibraryIsInvalid toException(int input) {
+            return new YourUseOfMyLibraryIsInvalid(template(), input);
+        }
+    },
+    /**
+     * The call threw instead of answering : only reported in bulk, where one throwing call shall not cancel the others.
+     */
+    CALL_FAILED("Call for id[{}] threw", true) {
+        @Override
+        YourUseOfMyLibraryIsInvalid toException(int input) {
+            return new YourUseOfMyLibraryIsInvalid(template(), input);
+        }
+    };
+
+    private final MessageTemplate template;
+    private final boolean dependencyFault;
+
+    FailureReason(String pattern, boolean dependencyFault) {
+        this.template = MessageTemplate.of(pattern);
+        this.dependencyFault = dependencyFault;
+    }
+
+    public MessageTemplate template() {
+        return template;
+    }
+
+    /**
+     * The library failed to answer, as opposed to answering that the input is invalid or that no value is stored for it :
+     * both of these prove the library worked.
+     */
+    public boolean dependencyFault() {
+        return dependencyFault;
+    }
+
+    String render(int input) {
+        return template.render(null, input);
+    }
+
+    abstract YourUseOfMyLibraryIsInvalid toException(int input);
+}
@@ -0,0 +1,148 @@
+package io.permasoft.katas.javaplays.exceptions.externallibrary;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Result of a library call that reports expected failures as values : either a {@link Success} holding an unboxed int,
+ * or a {@link Failure} holding a reason code whose message is rendered only when asked.
+ * The private constructor seals the hierarchy to these two nested classes.
+ * <p>
+ * Successes of small values are cached like Integer.valueOf does, other successes are small enough to be scalar replaced
+ * by escape analysis once the call is inlined, so a plain success allocates nothing.
+ */
+public abstract class IntOutcome {
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final Success[] successes = new Success[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < successes.length; i++) {
+            successes[i] = new Success(i + CACHE_LOW);
+        }
+    }
+
+    private IntOutcome() {
+    }
+
+    public static IntOutcome success(int value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return successes[value - CACHE_LOW];
+        }
+        return new Success(value);
+    }
+
+    public static Failure failure(FailureReason reason, int input) {
+        return new Failure(reason, input);
+    }
+
+    public abstract boolean isSuccess();
+
+    public final boolean isFailure() {
+        return !isSuccess();
+    }
+
+    /**
+     * @throws NoSuchElementException on failure, use {@link #orElse(int)} or {@link #orElseThrow()} when failure is expected
+     */
+    public abstract int getAsInt();
+
+    public abstract int orElse(int other);
+
+    /**
+     * Adapter to the exception world : the library exception is only created here, on failure.
+     */
+    public abstract int orElseThrow() throws YourUseOfMyLibraryIsInvalid;
+
+    public static final class Success extends IntOutcome {
+        private final int value;
+
+        private Success(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public int getAsInt() {
+            return value;
+        }
+
+        @Override
+        public int orElse(int other) {
+            return value;
+        }
+
+        @Override
+        public int orElseThrow() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return Integer.toString(value);
+        }
+    }
+
+    public static final class Failure extends IntOutcome {
+        private final FailureReason reason;
+        private final int input;
+        private String message;
+
+        private Failure(FailureReason reason, int input) {
+            this.reason = reason;
+            this.input = input;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public int getAsInt() {
+            throw new NoSuchElementException(message());
+        }
+
+        @Override
+        public int orElse(int other) {
+            return other;
+        }
+
+        @Override
+        public int orElseThrow() throws YourUseOfMyLibraryIsInvalid {
+            throw toException();
+        }
+
+        public FailureReason reason() {
+            return reason;
+        }
+
+        public int input() {
+            return input;
+        }
+
+        /**
+         * Rendered on first call only, a racy memo is fine as rendering is idempotent and strings are immutable.
+         */
+        public String message() {
+            String rendered = message;
+            if (rendered == null) {
+                rendered = reason.render(input);
+                message = rendered;
+            }
+            return rendered;
+        }
+
+        public YourUseOfMyLibraryIsInvalid toException() {
+            return reason.toException(input);
+        }
+
+        @Override
+        public String toString() {
+            return message();
+        }
+    }
+}
@@ -1,10 +1,94 @@
 package io.permasoft.katas.javaplays.exceptions.externallibrary;
 
-public class YourUseOfMyLibraryIsInvalid extends Exception {
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
+import io.permasoft.katas.javaplays.exceptions.support.StackTracePolicy;
+import io.permasoft.katas.javaplays.exceptions.support.TemplatedMessage;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class YourUseOfMyLibraryIsInvalid extends Exception implements TemplatedMessage {
+    public static final StackTracePolicy STACK_TRACES = new StackTracePolicy();
+    private static final int SHARED_NEGATIVE_INPUTS = 128;
+    private static final AtomicReferenceArray<YourUseOfMyLibraryIsInvalid> sharedNegativeInputs = new AtomicReferenceArray<>(SHARED_NEGATIVE_INPUTS);
+
+    private final MessageTemplate template;
+    private final long[] arguments;
+    /**
+     * Benign race : not volatile, a thread may miss the memo of another and render the same text again.
+     * It never sees a partly built message, String is immutable and safely published through its final fields.
+     */
+    private String message;
+
     public YourUseOfMyLibraryIsInvalid(String message) {
-        super(message);
+        this(message, null);
     }
     public YourUseOfMyLibraryIsInvalid(String message, Throwable cause) {
-        super(message, cause);
+        this(message, cause, STACK_TRACES.captureStackTrace());
+    }
+    protected YourUseOfMyLibraryIsInvalid(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, writableStackTrace, writableStackTrace);
+        this.template = null;
+        this.arguments = null;
+    }
+
+    /**
+     * The message is only rendered when read.
+     */
+    public YourUseOfMyLibraryIsInvalid(MessageTemplate template, long... arguments) {
+        this(template, null, STACK_TRACES.captureStackTrace(), arguments);
+    }
+
+    protected YourUseOfMyLibraryIsInvalid(MessageTemplate template, Throwable cause, boolean writableStackTrace, long... arguments) {
+        super(null, cause, writableStackTrace, writableStackTrace);
+        this.template = template;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Once stack traces are no more captured, small negative inputs share one immutable instance each, like Integer.valueOf does.
+     */
+    public static YourUseOfMyLibraryIsInvalid negativeInput(int id) {
+        boolean captureStackTrace = STACK_TRACES.captureStackTrace();
+        if (captureStackTrace || id >= 0 || id < -SHARED_NEGATIVE_INPUTS) {
+            return new YourUseOfMyLibraryIsInvalid(FailureReason.NEGATIVE_INPUT.template(), null, captureStackTrace, id);
+        }
+        int index = -id - 1;
+        YourUseOfMyLibraryIsInvalid shared = sharedNegativeInputs.get(index);
+        if (shared == null) {
+            sharedNegativeInputs.compareAndSet(index, null, new YourUseOfMyLibraryIsInvalid(FailureReason.NEGATIVE_INPUT.template(), null, false, id));
+            shared = sharedNegativeInputs.get(index);
+        }
+        return shared;
+    }
+
+    /**
+     * Rendered on first call only, then memoized.
+     */
+    @Override
+    public String getMessage() {
+        if (template == null) {
+            return super.getMessage();
+        }
+        String rendered = message;
+        if (rendered == null) {
+            rendered = template.render(getCause(), arguments);
+            message = rendered;
+        }
+        return rendered;
+    }
+
+    @Override
+    public MessageTemplate messageTemplate() {
+        return template;
+    }
+
+    @Override
+    public void formatMessageTo(StringBuilder out) {
+        String rendered = template == null ? super.getMessage() : message;
+        if (rendered == null && template != null) {
+            template.renderTo(out, getCause(), arguments);
+        } else {
+            out.append(rendered);
+        }
     }
 }
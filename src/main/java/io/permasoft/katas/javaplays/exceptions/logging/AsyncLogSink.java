@@ -0,0 +1,274 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands log events over to a background thread through a bounded lock free ring buffer (multi producers, one consumer, Vyukov style) :
+ * request threads only store references to the logger, format and arguments. The consumer copies a batch of events out
+ * of the ring and frees their slots at once, then pays for message formatting, stack trace rendering and appender I/O of the
+ * whole batch, so producers never wait behind the appender for more than a batch.
+ * <p>
+ * When the buffer is full the {@link Overflow} policy applies. The requesting thread name is put in the MDC under
+ * {@value #REQUEST_THREAD} since the logging thread is the consumer one, once per run of events of the same thread in a batch.
+ * <p>
+ * Closing marks the tail of the ring as closed in one atomic step : no event is claimed afterwards, later ones are logged inline,
+ * and the consumer ends once it has drained every event claimed before, none is lost in between.
+ */
+public class AsyncLogSink implements LogSink {
+    public static final String REQUEST_THREAD = "requestThread";
+    private static final Logger log = LoggerFactory.getLogger(AsyncLogSink.class);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long CLOSED = Long.MIN_VALUE;
+    private static final long FULL = -1;
+
+    public enum Overflow {
+        /** lose the event, only counted */
+        DROP,
+        /** wait for room in the buffer, no event lost but request threads slow down with the appender */
+        BLOCK,
+        /** lose the event, the consumer logs how many were lost since its last summary */
+        SUMMARIZE
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final Logger[] loggers;
+    private final Level[] levels;
+    private final String[] formats;
+    private final Object[][] arguments;
+    private final String[] threads;
+    /**
+     * Next position to claim, with the {@link #CLOSED} bit once closed.
+     */
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+    private final Logger[] batchLoggers;
+    private final Level[] batchLevels;
+    private final String[] batchFormats;
+    private final Object[][] batchArguments;
+    private final String[] batchThreads;
+
+    private final Overflow overflow;
+    private final int batchSize;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder summarized = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private long droppedAtLastSummary;
+
+    private final Thread consumer;
+
+    public AsyncLogSink(int capacity, Overflow overflow, int batchSize) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.loggers = new Logger[size];
+        this.levels = new Level[size];
+        this.formats = new String[size];
+        this.arguments = new Object[size][];
+        this.threads = new String[size];
+        this.overflow = overflow;
+        this.batchSize = batchSize;
+        this.batchLoggers = new Logger[batchSize];
+        this.batchLevels = new Level[batchSize];
+        this.batchFormats = new String[batchSize];
+        this.batchArguments = new Object[batchSize][];
+        this.batchThreads = new String[batchSize];
+        this.consumer = new Thread(this::consume, "async-log-sink");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void log(Logger logger, Level level, String format, Object... args) {
+        if (!LogSink.isEnabled(logger, level)) {
+            return;
+        }
+        long position = claim();
+        if (position == CLOSED) {
+            InlineLogSink.INSTANCE.log(logger, level, format, args);
+            return;
+        }
+        if (position == FULL) {
+            dropped.increment();
+            return;
+        }
+        int index = (int) (position & mask);
+        loggers[index] = logger;
+        levels[index] = level;
+        formats[index] = format;
+        arguments[index] = args;
+        threads[index] = Thread.currentThread().getName();
+        sequences.lazySet(index, position + 1);
+    }
+
+    /**
+     * @return the claimed position, {@link #FULL} when the event is dropped or {@link #CLOSED}
+     */
+    private long claim() {
+        long position = tail.get();
+        while (true) {
+            if (position < 0) {
+                return CLOSED;
+            }
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) { // full
+                if (overflow != Overflow.BLOCK) {
+                    return FULL;
+                }
+                LockSupport.parkNanos(1_000);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private void consume() {
+        long idleParkNanos = 1_000;
+        while (true) {
+            int drained = drain();
+            summarizeDrops();
+            if (drained > 0) {
+                idleParkNanos = 1_000;
+                continue;
+            }
+            long claimed = tail.get();
+            if (claimed < 0 && head == (claimed & ~CLOSED)) {
+                return;
+            }
+            LockSupport.parkNanos(idleParkNanos);
+            idleParkNanos = Math.min(idleParkNanos * 2, MAX_IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Copies up to a batch of published events out of the ring and frees their slots, then writes them.
+     */
+    private int drain() {
+        int drained = 0;
+        while (drained < batchSize) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            batchLoggers[drained] = loggers[index];
+            batchLevels[drained] = levels[index];
+            batchFormats[drained] = formats[index];
+            batchArguments[drained] = arguments[index];
+            batchThreads[drained] = threads[index];
+            loggers[index] = null;
+            levels[index] = null;
+            formats[index] = null;
+            arguments[index] = null;
+            threads[index] = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        if (drained > 0) {
+            write(drained);
+            processed.add(drained);
+        }
+        return drained;
+    }
+
+    private void write(int events) {
+        String requestThread = null;
+        try {
+            for (int i = 0; i < events; i++) {
+                if (!batchThreads[i].equals(requestThread)) {
+                    requestThread = batchThreads[i];
+                    MDC.put(REQUEST_THREAD, requestThread);
+                }
+                try {
+                    InlineLogSink.INSTANCE.log(batchLoggers[i], batchLevels[i], batchFormats[i], batchArguments[i]);
+                } catch (RuntimeException e) { // a failing appender shall not kill the consumer
+                    failed.increment();
+                }
+                batchLoggers[i] = null;
+                batchLevels[i] = null;
+                batchFormats[i] = null;
+                batchArguments[i] = null;
+                batchThreads[i] = null;
+            }
+        } finally {
+            MDC.remove(REQUEST_THREAD);
+        }
+    }
+
+    private void summarizeDrops() {
+        if (overflow != Overflow.SUMMARIZE) {
+            return;
+        }
+        long total = dropped.sum();
+        long lost = total - droppedAtLastSummary;
+        if (lost > 0) {
+            droppedAtLastSummary = total;
+            summarized.add(lost);
+            log.warn("async log buffer full, {} log events dropped", lost);
+        }
+    }
+
+    /**
+     * Lost because the buffer was full.
+     */
+    public long droppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Lost because logging them threw, as a failing appender does.
+     */
+    public long failedEvents() {
+        return failed.sum();
+    }
+
+    public long summarizedEvents() {
+        return summarized.sum();
+    }
+
+    public long processedEvents() {
+        return processed.sum();
+    }
+
+    /**
+     * Stops accepting events, later ones are logged inline, then waits up to 10 seconds for the consumer to drain every event accepted before.
+     */
+    @Override
+    public void close() {
+        tail.getAndUpdate(position -> position | CLOSED);
+        LockSupport.unpark(consumer);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        boolean interrupted = false;
+        long remaining;
+        while (consumer.isAlive() && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedJoin(consumer, remaining);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
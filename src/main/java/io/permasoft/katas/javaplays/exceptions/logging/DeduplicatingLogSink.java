@@ -0,0 +1,190 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Logs the full stack trace of a failure only the first time its {@link ExceptionFingerprint} is seen in a time window,
+ * later occurrences are counted and reported as periodic "seen N more times" lines without trace.
+ * Events without a trailing throwable go straight to the delegate.
+ * Each fingerprint has its own atomic counters in a concurrent map : no global lock, threads only meet on the same failure.
+ * <p>
+ * Pending summaries are also written by a periodic tick, so that the repeats of a failure that stopped are still reported,
+ * and on close. Once maxFingerprints are tracked, a clock hand evicts fingerprints whose window is over and that were not seen
+ * since it last passed, a few per new fingerprint : the table is never scanned on the request path.
+ */
+public class DeduplicatingLogSink implements LogSink {
+    private static final int EVICTION_STEPS = 8;
+
+    private final LogSink delegate;
+    private final long windowNanos;
+    private final long summaryNanos;
+    private final int maxFingerprints;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<Long, Occurrences> occurrences = new ConcurrentHashMap<>();
+    private final Queue<Occurrences> clock = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * Ticks every summary period on a daemon thread of its own.
+     */
+    public DeduplicatingLogSink(LogSink delegate, long windowMillis, long summaryMillis, int maxFingerprints) {
+        this(delegate, windowMillis, summaryMillis, maxFingerprints, System::nanoTime);
+        ticker.scheduleWithFixedDelay(this::tick, summaryMillis, summaryMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Never ticks by itself, see {@link #tick()}.
+     */
+    DeduplicatingLogSink(LogSink delegate, long windowMillis, long summaryMillis, int maxFingerprints, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.summaryNanos = TimeUnit.MILLISECONDS.toNanos(summaryMillis);
+        this.maxFingerprints = maxFingerprints;
+        this.nanoClock = nanoClock;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "log-dedup-summaries");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void log(Logger logger, Level level, String format, Object... arguments) {
+        Throwable failure = arguments.length == 0 || !(arguments[arguments.length - 1] instanceof Throwable)
+                ? null : (Throwable) arguments[arguments.length - 1];
+        if (failure == null || !LogSink.isEnabled(logger, level)) {
+            delegate.log(logger, level, format, arguments);
+            return;
+        }
+        long fingerprint = ExceptionFingerprint.of(failure);
+        long now = nanoClock.getAsLong();
+        Occurrences seen = occurrences(fingerprint, logger, level, failure, now);
+        if (seen == null) { // table full of live failures : better log too much than lose a new failure
+            delegate.log(logger, level, format, arguments);
+            return;
+        }
+        if (!seen.referenced) {
+            seen.referenced = true;
+        }
+        long windowStart = seen.windowStart.get();
+        if (now - windowStart >= windowNanos && seen.windowStart.compareAndSet(windowStart, now)) {
+            summarize(seen, now);
+            delegate.log(logger, level, format, arguments);
+            return;
+        }
+        seen.suppressed.incrementAndGet();
+        summarizeIfDue(seen, now);
+    }
+
+    /**
+     * Writes the summaries whose period is over, of the failures that were not seen again since.
+     */
+    void tick() {
+        long now = nanoClock.getAsLong();
+        for (Occurrences seen : occurrences.values()) {
+            summarizeIfDue(seen, now);
+        }
+    }
+
+    /**
+     * Stops the tick, writes every pending summary, then closes the delegate.
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        long now = nanoClock.getAsLong();
+        for (Occurrences seen : occurrences.values()) {
+            summarize(seen, now);
+        }
+        delegate.close();
+    }
+
+    private void summarizeIfDue(Occurrences seen, long now) {
+        long lastSummary = seen.lastSummary.get();
+        if (now - lastSummary >= summaryNanos && seen.suppressed.get() > 0 && seen.lastSummary.compareAndSet(lastSummary, now)) {
+            summarize(seen, now);
+        }
+    }
+
+    private void summarize(Occurrences seen, long now) {
+        seen.lastSummary.set(now);
+        long suppressed = seen.suppressed.getAndSet(0);
+        if (suppressed > 0) {
+            delegate.log(seen.logger, seen.level, "{} [fingerprint {}] seen {} more times",
+                    seen.failureClass, ExceptionFingerprint.toHex(seen.fingerprint), suppressed);
+        }
+    }
+
+    private Occurrences occurrences(long fingerprint, Logger logger, Level level, Throwable failure, long now) {
+        Occurrences seen = occurrences.get(fingerprint);
+        if (seen != null) {
+            return seen;
+        }
+        if (occurrences.size() >= maxFingerprints && !evict(now)) {
+            return null;
+        }
+        Occurrences created = new Occurrences(fingerprint, logger, level, failure.getClass().getName(), now - windowNanos);
+        seen = occurrences.putIfAbsent(fingerprint, created);
+        if (seen == null) {
+            clock.offer(created);
+            seen = created;
+        }
+        return seen;
+    }
+
+    /**
+     * Moves the clock hand over a few fingerprints : the ones seen since it last passed get a second chance,
+     * the first one whose window is over is evicted, its pending summary written.
+     *
+     * @return whether a fingerprint was evicted
+     */
+    private boolean evict(long now) {
+        for (int step = 0; step < EVICTION_STEPS; step++) {
+            Occurrences hand = clock.poll();
+            if (hand == null) {
+                return false;
+            }
+            if (hand.referenced || now - hand.windowStart.get() < windowNanos) {
+                hand.referenced = false;
+                clock.offer(hand);
+                continue;
+            }
+            occurrences.remove(hand.fingerprint, hand);
+            summarize(hand, now);
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Occurrences {
+        private final long fingerprint;
+        private final Logger logger;
+        private final Level level;
+        private final String failureClass;
+        private final AtomicLong windowStart;
+        private final AtomicLong lastSummary;
+        private final AtomicLong suppressed = new AtomicLong();
+        private volatile boolean referenced;
+
+        private Occurrences(long fingerprint, Logger logger, Level level, String failureClass, long expiredWindowStart) {
+            this.fingerprint = fingerprint;
+            this.logger = logger;
+            this.level = level;
+            this.failureClass = failureClass;
+            this.windowStart = new AtomicLong(expiredWindowStart);
+            this.lastSummary = new AtomicLong(expiredWindowStart);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Logs on the calling thread, as a plain logger call would.
+ */
+public final class InlineLogSink implements LogSink {
+    public static final InlineLogSink INSTANCE = new InlineLogSink();
+
+    private InlineLogSink() {
+    }
+
+    @Override
+    public void log(Logger logger, Level level, String format, Object... arguments) {
+        switch (level) {
+            case ERROR:
+                logger.error(format, arguments);
+                break;
+            case WARN:
+                logger.warn(format, arguments);
+                break;
+            case INFO:
+                logger.info(format, arguments);
+                break;
+            case DEBUG:
+                logger.debug(format, arguments);
+                break;
+            default:
+                logger.trace(format, arguments);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Where failure paths hand their log events : inline to the logger, or to a pipeline that does the formatting and I/O elsewhere.
+ * Arguments follow SLF4J conventions (a trailing throwable is logged with its stack trace) and must not be mutated after the call,
+ * as they may be rendered later on another thread.
+ * Sinks decorate each other, closing the outer one closes the chain.
+ */
+public interface LogSink extends AutoCloseable {
+
+    void log(Logger logger, Level level, String format, Object... arguments);
+
+    /**
+     * Waits for the events accepted so far to be written. An interrupt does not cut the wait short,
+     * the interrupt status is restored once done : no checked exception for try-with-resources to handle.
+     */
+    @Override
+    default void close() {
+    }
+
+    static boolean isEnabled(Logger logger, Level level) {
+        switch (level) {
+            case ERROR:
+                return logger.isErrorEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+            case INFO:
+                return logger.isInfoEnabled();
+            case DEBUG:
+                return logger.isDebugEnabled();
+            default:
+                return logger.isTraceEnabled();
+        }
+    }
+}
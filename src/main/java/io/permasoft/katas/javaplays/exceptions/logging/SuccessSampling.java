@@ -0,0 +1,226 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which success log lines are written : one call in N per method, N configured per method or by default,
+ * raised automatically while a method is called more often than maxLinesPerSecond, so that its success lines stay under that budget.
+ * Failures are not sampled, they never ask. Calls slower than the slow threshold are always logged, with a rate of 1.
+ * Each logged line carries its rate : the number of calls is the sum of the rates of the logged lines.
+ * <p>
+ * The defaults log everything. Rates, budget and threshold can be changed at runtime, through the setters or over JMX
+ * once {@link #registerMBean()} was called, they apply from the next call.
+ * Each method has its own atomic counters : threads only meet on the same method.
+ */
+public class SuccessSampling implements SuccessSamplingMBean, AutoCloseable {
+    public static final String OBJECT_NAME = "io.permasoft.katas.javaplays.exceptions:type=SuccessSampling";
+    static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_REGISTRATIONS = 16;
+
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Sampler> samplers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> rates = new ConcurrentHashMap<>();
+    private volatile int defaultRate = 1;
+    private volatile long maxLinesPerSecond;
+    private volatile long slowNanos;
+    private volatile ObjectName registeredAs;
+
+    public SuccessSampling() {
+        this(System::nanoTime);
+    }
+
+    SuccessSampling(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Sampler of the method, the same instance for every call : resolve it once and keep it.
+     */
+    public Sampler sampler(String method) {
+        Sampler sampler = samplers.get(method);
+        if (sampler == null) {
+            sampler = samplers.computeIfAbsent(method, Sampler::new);
+        }
+        return sampler;
+    }
+
+    @Override
+    public int getDefaultRate() {
+        return defaultRate;
+    }
+
+    @Override
+    public void setDefaultRate(int oneIn) {
+        this.defaultRate = checkRate(oneIn);
+    }
+
+    @Override
+    public void setRate(String method, int oneIn) {
+        rates.put(method, checkRate(oneIn));
+    }
+
+    @Override
+    public void resetRate(String method) {
+        rates.remove(method);
+    }
+
+    @Override
+    public Map<String, Integer> getRates() {
+        return new TreeMap<>(rates);
+    }
+
+    @Override
+    public Map<String, Integer> getEffectiveRates() {
+        Map<String, Integer> effective = new TreeMap<>();
+        samplers.forEach((method, sampler) -> effective.put(method, sampler.rate()));
+        return effective;
+    }
+
+    @Override
+    public long getMaxLinesPerSecond() {
+        return maxLinesPerSecond;
+    }
+
+    /**
+     * 0 turns adaptive sampling off : only configured rates apply.
+     */
+    @Override
+    public void setMaxLinesPerSecond(long maxLinesPerSecond) {
+        if (maxLinesPerSecond < 0) {
+            throw new IllegalArgumentException("negative line budget " + maxLinesPerSecond);
+        }
+        this.maxLinesPerSecond = maxLinesPerSecond;
+    }
+
+    @Override
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowNanos);
+    }
+
+    /**
+     * 0 turns it off : slow calls are sampled like the others.
+     */
+    @Override
+    public void setSlowThresholdMillis(long slowMillis) {
+        if (slowMillis < 0) {
+            throw new IllegalArgumentException("negative slow threshold " + slowMillis);
+        }
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+    }
+
+    /**
+     * Exposes this sampling in the platform MBean server, suffixed with an id when another one of the same process already is.
+     */
+    public ObjectName registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (int i = 0; ; i++) {
+            ObjectName name = new ObjectName(i == 0 ? OBJECT_NAME : OBJECT_NAME + ",id=" + i);
+            try {
+                server.registerMBean(this, name);
+                registeredAs = name;
+                return name;
+            } catch (InstanceAlreadyExistsException taken) {
+                if (i == MAX_REGISTRATIONS - 1) {
+                    throw taken;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the MBean, if registered.
+     */
+    @Override
+    public void close() throws JMException {
+        ObjectName name = registeredAs;
+        if (name != null) {
+            registeredAs = null;
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+
+    private static int checkRate(int oneIn) {
+        if (oneIn < 1) {
+            throw new IllegalArgumentException("sampling rate shall be one in 1 or more, not " + oneIn);
+        }
+        return oneIn;
+    }
+
+    /**
+     * Sampling of one method.
+     */
+    public final class Sampler {
+        private final String method;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong windowStart;
+        private volatile long windowCalls;
+        private volatile int adaptiveRate = 1;
+
+        private Sampler(String method) {
+            this.method = method;
+            this.windowStart = new AtomicLong(nanoClock.getAsLong());
+        }
+
+        /**
+         * Counts a call of the success path and tells whether to log it.
+         *
+         * @param elapsedNanos duration of the call, or 0 when not known yet
+         * @return 0 when the call is not logged, otherwise the rate its log lines carry
+         */
+        public int sample(long elapsedNanos) {
+            long call = calls.incrementAndGet();
+            long budget = maxLinesPerSecond;
+            if (budget > 0) {
+                adapt(call, budget);
+            }
+            long slow = slowNanos;
+            if (slow > 0 && elapsedNanos >= slow) {
+                return 1;
+            }
+            int rate = rate();
+            return call % rate == 0 ? rate : 0;
+        }
+
+        /**
+         * Whether a call not logged when sampled at its start turned out slower than the slow threshold : its last line shall be written.
+         * Does not count a call.
+         */
+        public boolean isSlow(long elapsedNanos) {
+            long slow = slowNanos;
+            return slow > 0 && elapsedNanos >= slow;
+        }
+
+        /**
+         * Larger of the configured and the adaptive rate.
+         */
+        public int rate() {
+            Integer configured = rates.get(method);
+            return Math.max(configured == null ? defaultRate : configured, maxLinesPerSecond > 0 ? adaptiveRate : 1);
+        }
+
+        /**
+         * Once per window, the thread that closes it turns the observed call rate into the rate keeping the lines under budget.
+         */
+        private void adapt(long call, long budget) {
+            long now = nanoClock.getAsLong();
+            long start = windowStart.get();
+            long elapsed = now - start;
+            if (elapsed >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                long callsPerSecond = (call - windowCalls) * WINDOW_NANOS / elapsed;
+                windowCalls = call;
+                adaptiveRate = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (callsPerSecond + budget - 1) / budget));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import java.util.Map;
+
+/**
+ * Runtime controls of {@link SuccessSampling}, rates are one logged call in N.
+ */
+public interface SuccessSamplingMBean {
+
+    int getDefaultRate();
+
+    void setDefaultRate(int oneIn);
+
+    void setRate(String method, int oneIn);
+
+    /**
+     * Back to the default rate.
+     */
+    void resetRate(String method);
+
+    /**
+     * Rates of the methods given their own.
+     */
+    Map<String, Integer> getRates();
+
+    /**
+     * Rates applied right now to the methods called so far, adaptive sampling included.
+     */
+    Map<String, Integer> getEffectiveRates();
+
+    long getMaxLinesPerSecond();
+
+    void setMaxLinesPerSecond(long maxLinesPerSecond);
+
+    long getSlowThresholdMillis();
+
+    void setSlowThresholdMillis(long slowMillis);
+}
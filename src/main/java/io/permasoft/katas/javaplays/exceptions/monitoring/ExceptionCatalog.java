@@ -0,0 +1,204 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * In memory aggregation of the exceptions seen by the application, one entry per {@link ExceptionFingerprint}.
+ * Recording a known failure only bumps counters of its entry. A new failure beyond capacity evicts the least recently seen tenth
+ * of the entries at once, so the scan is paid once per batch rather than once per new failure. It is done by one thread at a time,
+ * others do not wait for it and may add their entry meanwhile, until a tenth over capacity : beyond, they wait for the scan.
+ * So the catalog holds at most maxEntries plus a tenth, plus one entry per thread racing in a new failure.
+ */
+@Component
+public class ExceptionCatalog implements FailureObserver {
+    private static final long RATE_SLOT_MILLIS = 10_000;
+
+    private final int maxEntries;
+    private final int evictionBatch;
+    private final LongSupplier clock;
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock eviction = new ReentrantLock();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExceptionCatalog() {
+        this(1000);
+    }
+
+    @Autowired
+    public ExceptionCatalog(@Value("${exceptions.catalog.max-entries:1000}") int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    ExceptionCatalog(int maxEntries, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.evictionBatch = Math.max(1, maxEntries / 10);
+        this.clock = clock;
+    }
+
+    @Override
+    public void failed(Throwable failure) {
+        long now = clock.getAsLong();
+        long fingerprint = ExceptionFingerprint.of(failure);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            int size = entries.size();
+            if (size >= maxEntries) {
+                evictLeastRecentlySeen(size >= maxEntries + evictionBatch);
+            }
+            entry = entries.computeIfAbsent(fingerprint, f -> new Entry(f, failure, now));
+        }
+        entry.record(now);
+    }
+
+    /**
+     * Hottest failures first, by recent occurrences per second.
+     */
+    public List<ExceptionStatistics> topByRate(int limit) {
+        long now = clock.getAsLong();
+        return entries.values().stream()
+                .map(entry -> entry.statistics(now))
+                .sorted(Comparator.comparingDouble(ExceptionStatistics::ratePerSecond).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public List<ExceptionStatistics> byRootCause(String rootCauseType) {
+        long now = clock.getAsLong();
+        return entries.values().stream()
+                .filter(entry -> entry.rootCauseType.equals(rootCauseType))
+                .map(entry -> entry.statistics(now))
+                .sorted(Comparator.comparingLong(ExceptionStatistics::count).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Evicts the entries seen before a cutoff found on a snapshot of the last seen times :
+     * those keep moving while the scan runs, sorting the entries on them directly could break the sort contract.
+     */
+    private void evictLeastRecentlySeen(boolean wait) {
+        if (wait) {
+            eviction.lock();
+        } else if (!eviction.tryLock()) {
+            return;
+        }
+        try {
+            int excess = entries.size() - maxEntries;
+            if (excess < 0) {
+                return;
+            }
+            long[] lastSeen = new long[maxEntries + 2 * evictionBatch];
+            int seen = 0;
+            for (Entry entry : entries.values()) {
+                if (seen == lastSeen.length) {
+                    break;
+                }
+                lastSeen[seen++] = entry.lastSeen.get();
+            }
+            int toEvict = Math.min(excess + evictionBatch, seen);
+            if (toEvict == 0) {
+                return;
+            }
+            Arrays.sort(lastSeen, 0, seen);
+            long cutoff = lastSeen[toEvict - 1];
+            int evicted = 0;
+            for (Entry entry : entries.values()) {
+                if (evicted == toEvict) {
+                    break;
+                }
+                if (entry.lastSeen.get() <= cutoff && entries.remove(entry.fingerprint, entry)) {
+                    evicted++;
+                }
+            }
+            evictions.add(evicted);
+        } finally {
+            eviction.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final long fingerprint;
+        private final String type;
+        private final String rootCauseType;
+        private final Throwable sample;
+        private final long firstSeen;
+        private final AtomicLong lastSeen;
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong rateSlot;
+        private final LongAdder currentSlotCount = new LongAdder();
+        private volatile long previousSlotCount;
+
+        private Entry(long fingerprint, Throwable sample, long now) {
+            this.fingerprint = fingerprint;
+            this.type = sample.getClass().getName();
+            this.rootCauseType = rootCause(sample).getClass().getName();
+            this.sample = sample;
+            this.firstSeen = now;
+            this.lastSeen = new AtomicLong(now);
+            this.rateSlot = new AtomicLong(now / RATE_SLOT_MILLIS);
+        }
+
+        private void record(long now) {
+            count.increment();
+            lastSeen.accumulateAndGet(now, Math::max);
+            long slot = now / RATE_SLOT_MILLIS;
+            long current = rateSlot.get();
+            if (slot > current && rateSlot.compareAndSet(current, slot)) {
+                long previous = currentSlotCount.sumThenReset();
+                previousSlotCount = slot == current + 1 ? previous : 0;
+            }
+            currentSlotCount.increment();
+        }
+
+        /**
+         * Occurrences over the last slot duration, the previous slot weighted by how much of it is still in that sliding window.
+         */
+        private double ratePerSecond(long now) {
+            long slot = now / RATE_SLOT_MILLIS;
+            long current = rateSlot.get();
+            double elapsed = (double) (now % RATE_SLOT_MILLIS) / RATE_SLOT_MILLIS;
+            double occurrences;
+            if (slot == current) {
+                occurrences = previousSlotCount * (1 - elapsed) + currentSlotCount.sum();
+            } else if (slot == current + 1) {
+                occurrences = currentSlotCount.sum() * (1 - elapsed);
+            } else {
+                occurrences = 0;
+            }
+            return occurrences * 1000 / RATE_SLOT_MILLIS;
+        }
+
+        private ExceptionStatistics statistics(long now) {
+            return new ExceptionStatistics(type, ExceptionFingerprint.toHex(fingerprint), rootCauseType,
+                    firstSeen, lastSeen.get(), count.sum(), ratePerSecond(now), sample);
+        }
+
+        private static Throwable rootCause(Throwable failure) {
+            Throwable root = failure;
+            for (int depth = 0; root.getCause() != null && root.getCause() != root && depth < ExceptionFingerprint.MAX_CAUSES; depth++) {
+                root = root.getCause();
+            }
+            return root;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+/**
+ * Stable 64 bits identifier of "the same failure" : exception class and top stack frames of each throwable of the cause chain.
+ * Messages are left out on purpose since they usually embed request data (ids, inputs).
+ * Only String.hashCode values of class and method names are mixed (FNV-1a), so the id stays the same from one JVM run to the next.
+ */
+public final class ExceptionFingerprint {
+    static final int TOP_FRAMES = 5;
+    static final int MAX_CAUSES = 8;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ExceptionFingerprint() {
+    }
+
+    public static long of(Throwable throwable) {
+        long hash = FNV_OFFSET;
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth < MAX_CAUSES; depth++) {
+            hash = mix(hash, current.getClass().getName().hashCode());
+            StackTraceElement[] frames = current.getStackTrace();
+            for (int i = 0; i < frames.length && i < TOP_FRAMES; i++) {
+                hash = mix(hash, frames[i].getClassName().hashCode());
+                hash = mix(hash, frames[i].getMethodName().hashCode());
+                hash = mix(hash, frames[i].getLineNumber());
+            }
+            Throwable cause = current.getCause();
+            current = cause == current ? null : cause;
+        }
+        return hash;
+    }
+
+    public static String toHex(long fingerprint) {
+        return Long.toHexString(fingerprint);
+    }
+
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
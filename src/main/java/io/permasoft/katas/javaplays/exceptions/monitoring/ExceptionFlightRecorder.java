@@ -0,0 +1,311 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
+import io.permasoft.katas.javaplays.exceptions.support.TemplatedMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.permasoft.katas.javaplays.exceptions.monitoring.FlightRecordingFormat.*;
+
+/**
+ * Record of the last failures, kept in a memory mapped ring so that it outlives a crashing process :
+ * the operating system still holds the written pages when the JVM dies, read them with {@link FlightRecordingReader}.
+ * Opt-in in the application : only wired when exceptions.flight-recorder.enabled=true, then it records every failure.
+ * Each failure is one fixed size binary record : time, thread, exception type, root cause type, message template and top frames,
+ * the strings being interned once in the symbol area of the same file. Templated messages are recorded by their template, never rendered.
+ * <p>
+ * Once its symbols are known, recording a failure allocates nothing but the copy of the stack trace Throwable.getStackTrace makes,
+ * so it keeps working during an OutOfMemoryError burst. A symbol that can not be interned any more, area full or heap exhausted,
+ * is recorded as unknown.
+ * Writers claim their slot with an atomic increment of the sequence stored in the file, then commit it, there is no lock on this path.
+ */
+public class ExceptionFlightRecorder implements FailureObserver, AutoCloseable {
+    static final int MAX_SYMBOLS = 1 << 15;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int symbolsOffset;
+    private final int symbolCapacity;
+    private final AtomicLongArray symbolHashes;
+    private final AtomicIntegerArray symbolIds;
+    private final LongAdder unknownSymbols = new LongAdder();
+    private int symbolCount;
+    private int symbolBytes;
+    private volatile boolean closed;
+
+    private ExceptionFlightRecorder(Path file, FileChannel channel, FileLock lock, int slotCount, int symbolCapacity) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+        this.slotCount = slotCount;
+        this.symbolCapacity = symbolCapacity;
+        this.symbolsOffset = symbolsOffset(slotCount);
+        boolean reuse = matches(channel, slotCount, symbolCapacity);
+        if (!reuse) {
+            channel.truncate(0);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(slotCount, symbolCapacity));
+        // a symbol takes at least 3 bytes, table kept at most half full
+        int tableSize = Integer.highestOneBit(Math.max(8, Math.min(symbolCapacity / 3, MAX_SYMBOLS)) * 4 - 1);
+        this.symbolHashes = new AtomicLongArray(tableSize);
+        this.symbolIds = new AtomicIntegerArray(tableSize);
+        if (reuse) {
+            reloadSymbols();
+        } else {
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+            buffer.putInt(SLOT_SIZE_OFFSET, SLOT_SIZE);
+            buffer.putInt(SYMBOL_CAPACITY_OFFSET, symbolCapacity);
+        }
+    }
+
+    /**
+     * Records to the given file, resuming the previous recording when it has the same geometry, starting over otherwise.
+     * The file is locked for the life of the recorder, a second recorder on the same file fails.
+     */
+    public static ExceptionFlightRecorder open(Path file, int slotCount, int symbolCapacity) throws IOException {
+        if (slotCount <= 0 || symbolCapacity <= 0 || fileSize(slotCount, symbolCapacity) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid flight recording geometry, " + slotCount + " slots and " + symbolCapacity + " symbol bytes");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new IOException("flight recording " + file + " is already in use by another process");
+            }
+            return new ExceptionFlightRecorder(file, channel, lock, slotCount, symbolCapacity);
+        } catch (OverlappingFileLockException alreadyOpen) {
+            channel.close();
+            throw new IOException("flight recording " + file + " is already in use by this process", alreadyOpen);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean matches(FileChannel channel, int slotCount, int symbolCapacity) throws IOException {
+        if (channel.size() != fileSize(slotCount, symbolCapacity)) {
+            return false;
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        return header.getInt(MAGIC_OFFSET) == MAGIC
+                && header.getInt(VERSION_OFFSET) == VERSION
+                && header.getInt(SLOT_COUNT_OFFSET) == slotCount
+                && header.getInt(SLOT_SIZE_OFFSET) == SLOT_SIZE
+                && header.getInt(SYMBOL_CAPACITY_OFFSET) == symbolCapacity;
+    }
+
+    private void reloadSymbols() {
+        int count = buffer.getInt(SYMBOL_COUNT_OFFSET);
+        int position = 0;
+        for (int id = 1; id <= count; id++) {
+            int length = buffer.getShort(symbolsOffset + position) & MAX_SYMBOL_LENGTH;
+            byte[] bytes = new byte[length];
+            ByteBuffer symbol = buffer.duplicate();
+            symbol.position(symbolsOffset + position + Short.BYTES);
+            symbol.get(bytes);
+            register(mix(start(), new String(bytes, StandardCharsets.UTF_8)), id);
+            position += Short.BYTES + length;
+        }
+        symbolCount = count;
+        symbolBytes = position;
+    }
+
+    @Override
+    public void failed(Throwable failure) {
+        if (closed || failure == null) {
+            return;
+        }
+        long sequence = (long) LONGS.getAndAdd(buffer, NEXT_SEQUENCE_OFFSET, 1L);
+        int slot = slotOffset(sequence, slotCount);
+        LONGS.setRelease(buffer, slot + COMMIT, 0L);
+        buffer.putLong(slot + EPOCH_MILLIS, System.currentTimeMillis());
+        Thread thread = Thread.currentThread();
+        buffer.putLong(slot + THREAD_ID, thread.getId());
+        buffer.putInt(slot + THREAD_NAME, symbol(thread.getName()));
+        buffer.putInt(slot + TYPE, symbol(failure.getClass().getName()));
+        Throwable rootCause = failure;
+        int causeDepth = 0;
+        while (rootCause.getCause() != null && rootCause.getCause() != rootCause && causeDepth < ExceptionFingerprint.MAX_CAUSES) {
+            rootCause = rootCause.getCause();
+            causeDepth++;
+        }
+        buffer.putInt(slot + ROOT_CAUSE_TYPE, symbol(rootCause.getClass().getName()));
+        buffer.putInt(slot + CAUSE_DEPTH, causeDepth);
+        buffer.putInt(slot + MESSAGE, messageTemplate(failure));
+        StackTraceElement[] frames = failure.getStackTrace();
+        int frameCount = Math.min(frames.length, MAX_FRAMES);
+        buffer.putInt(slot + FRAME_COUNT, frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            buffer.putInt(slot + FRAMES + i * Integer.BYTES, frame(frames[i]));
+        }
+        LONGS.setRelease(buffer, slot + COMMIT, sequence + 1);
+    }
+
+    private int symbol(String text) {
+        long hash = mix(start(), text);
+        int id = lookup(hash);
+        return id != UNKNOWN_SYMBOL ? id : intern(hash, text, null, null);
+    }
+
+    /**
+     * The template of a {@link TemplatedMessage} failure is recorded as is, its message is never rendered here.
+     * Other messages are rendered, their numbers replaced by placeholders.
+     */
+    private int messageTemplate(Throwable failure) {
+        MessageTemplate template = failure instanceof TemplatedMessage ? ((TemplatedMessage) failure).messageTemplate() : null;
+        if (template != null) {
+            return symbol(template.pattern());
+        }
+        String message = failure.getMessage();
+        return message == null ? UNKNOWN_SYMBOL : template(message);
+    }
+
+    private int template(String message) {
+        long hash = templateHash(message);
+        int id = lookup(hash);
+        return id != UNKNOWN_SYMBOL ? id : intern(hash, null, message, null);
+    }
+
+    private int frame(StackTraceElement frame) {
+        long hash = frameHash(frame);
+        int id = lookup(hash);
+        return id != UNKNOWN_SYMBOL ? id : intern(hash, null, null, frame);
+    }
+
+    private int lookup(long hash) {
+        long key = key(hash);
+        int mask = symbolHashes.length() - 1;
+        for (int i = (int) (key ^ (key >>> 32)) & mask; ; i = (i + 1) & mask) {
+            long found = symbolHashes.get(i);
+            if (found == key) {
+                return symbolIds.get(i);
+            }
+            if (found == 0L) {
+                return UNKNOWN_SYMBOL;
+            }
+        }
+    }
+
+    /**
+     * Slow path, once per distinct symbol : text rendered, appended to the file, then published to the lookup table.
+     */
+    private synchronized int intern(long hash, String text, String message, StackTraceElement frame) {
+        int id = lookup(hash);
+        if (id != UNKNOWN_SYMBOL) {
+            return id;
+        }
+        try {
+            String symbol = text != null ? text : message != null ? templateText(message) : frameText(frame);
+            byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, MAX_SYMBOL_LENGTH);
+            if (symbolBytes + Short.BYTES + length > symbolCapacity || 2 * (symbolCount + 1) > symbolHashes.length()) {
+                unknownSymbols.increment();
+                return UNKNOWN_SYMBOL;
+            }
+            ByteBuffer area = buffer.duplicate();
+            area.position(symbolsOffset + symbolBytes);
+            area.putShort((short) length).put(bytes, 0, length);
+            symbolBytes += Short.BYTES + length;
+            id = ++symbolCount;
+            // bytes first, count last : a reader never sees a symbol that is not fully written
+            INTS.setRelease(buffer, SYMBOL_BYTES_OFFSET, symbolBytes);
+            INTS.setRelease(buffer, SYMBOL_COUNT_OFFSET, symbolCount);
+            register(hash, id);
+            return id;
+        } catch (OutOfMemoryError noHeapLeft) {
+            unknownSymbols.increment();
+            return UNKNOWN_SYMBOL;
+        }
+    }
+
+    private void register(long hash, int id) {
+        long key = key(hash);
+        int mask = symbolHashes.length() - 1;
+        int i = (int) (key ^ (key >>> 32)) & mask;
+        while (symbolHashes.get(i) != 0L) {
+            i = (i + 1) & mask;
+        }
+        // id before hash : a reader finding the hash finds its id
+        symbolIds.set(i, id);
+        symbolHashes.set(i, key);
+    }
+
+    /**
+     * 0 marks a free entry of the lookup table.
+     */
+    private static long key(long hash) {
+        return hash == 0L ? 1L : hash;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Failures recorded since the file was created, older ones being overwritten once the ring is full.
+     */
+    public long recorded() {
+        return (long) LONGS.getVolatile(buffer, NEXT_SEQUENCE_OFFSET);
+    }
+
+    public int capacity() {
+        return slotCount;
+    }
+
+    public synchronized int symbols() {
+        return symbolCount;
+    }
+
+    /**
+     * Symbols recorded as unknown since the symbol area was full, or the heap exhausted.
+     */
+    public long unknownSymbols() {
+        return unknownSymbols.sum();
+    }
+
+    /**
+     * Flushes the recording to disk, which only matters if the machine, not only the process, may crash.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Stops recording and releases the file. The mapping itself lives until the recorder is garbage collected.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer.force();
+        try {
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExceptionFlightRecorder{" + file + ", recorded=" + recorded() + ", capacity=" + slotCount
+                + ", symbols=" + symbols() + ", unknownSymbols=" + unknownSymbols() + '}';
+    }
+}
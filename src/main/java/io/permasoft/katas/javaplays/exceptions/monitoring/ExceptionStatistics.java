@@ -0,0 +1,73 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+
+/**
+ * What the {@link ExceptionCatalog} knows about one failure, at the time it was asked.
+ */
+public class ExceptionStatistics {
+    private final String type;
+    private final String fingerprint;
+    private final String rootCauseType;
+    private final long firstSeen;
+    private final long lastSeen;
+    private final long count;
+    private final double ratePerSecond;
+    private final Throwable sample;
+
+    ExceptionStatistics(String type, String fingerprint, String rootCauseType, long firstSeen, long lastSeen, long count, double ratePerSecond, Throwable sample) {
+        this.type = type;
+        this.fingerprint = fingerprint;
+        this.rootCauseType = rootCauseType;
+        this.firstSeen = firstSeen;
+        this.lastSeen = lastSeen;
+        this.count = count;
+        this.ratePerSecond = ratePerSecond;
+        this.sample = sample;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public String rootCauseType() {
+        return rootCauseType;
+    }
+
+    public Instant firstSeen() {
+        return Instant.ofEpochMilli(firstSeen);
+    }
+
+    public Instant lastSeen() {
+        return Instant.ofEpochMilli(lastSeen);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    /**
+     * Stack trace of the first occurrence, rendered on demand.
+     */
+    public String sampleTrace() {
+        StringWriter trace = new StringWriter();
+        sample.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    @Override
+    public String toString() {
+        return type + " [" + fingerprint + "] caused by " + rootCauseType + " : " + count + " times, "
+                + ratePerSecond + "/s, first seen " + firstSeen() + ", last seen " + lastSeen();
+    }
+}
@@ -0,0 +1,13 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+/**
+ * Told about every exception caught by the use cases or the @Logging aspect, whatever the log level.
+ * Called on request threads : implementations must be cheap and must not throw.
+ */
+@FunctionalInterface
+public interface FailureObserver {
+    FailureObserver NONE = failure -> {
+    };
+
+    void failed(Throwable failure);
+}
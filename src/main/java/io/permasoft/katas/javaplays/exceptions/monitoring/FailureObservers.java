@@ -0,0 +1,34 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Tells every failure to several observers, in order. One failing observer does not prevent the next ones from being told.
+ */
+public final class FailureObservers implements FailureObserver {
+    private final FailureObserver[] observers;
+
+    private FailureObservers(FailureObserver[] observers) {
+        this.observers = observers;
+    }
+
+    public static FailureObserver of(FailureObserver... observers) {
+        return observers.length == 1 ? observers[0] : new FailureObservers(observers.clone());
+    }
+
+    @Override
+    public void failed(Throwable failure) {
+        for (FailureObserver observer : observers) {
+            try {
+                observer.failed(failure);
+            } catch (RuntimeException ignored) {
+                // observers must not throw, a broken one shall not break the request nor hide the failure from the others
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FailureObservers" + Arrays.toString(observers);
+    }
+}
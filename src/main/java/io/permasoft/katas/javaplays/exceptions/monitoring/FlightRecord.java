@@ -0,0 +1,95 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One failure decoded from a flight recording, see {@link FlightRecordingReader}.
+ * Symbols the recorder could not intern read as "?".
+ */
+public class FlightRecord {
+    private final long sequence;
+    private final long epochMillis;
+    private final long threadId;
+    private final String threadName;
+    private final String type;
+    private final String rootCauseType;
+    private final int causeDepth;
+    private final String messageTemplate;
+    private final List<String> frames;
+
+    FlightRecord(long sequence, long epochMillis, long threadId, String threadName, String type, String rootCauseType, int causeDepth, String messageTemplate, List<String> frames) {
+        this.sequence = sequence;
+        this.epochMillis = epochMillis;
+        this.threadId = threadId;
+        this.threadName = threadName;
+        this.type = type;
+        this.rootCauseType = rootCauseType;
+        this.causeDepth = causeDepth;
+        this.messageTemplate = messageTemplate;
+        this.frames = frames;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public Instant time() {
+        return Instant.ofEpochMilli(epochMillis);
+    }
+
+    public long threadId() {
+        return threadId;
+    }
+
+    public String threadName() {
+        return threadName;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public String rootCauseType() {
+        return rootCauseType;
+    }
+
+    /**
+     * Number of causes between the failure and its root cause, 0 when it has no cause.
+     */
+    public int causeDepth() {
+        return causeDepth;
+    }
+
+    /**
+     * Message with every run of digits replaced by {}, null when the failure had no message or it could not be interned.
+     */
+    public String messageTemplate() {
+        return messageTemplate;
+    }
+
+    /**
+     * Top frames of the failure, as class.method:line.
+     */
+    public List<String> frames() {
+        return frames;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder()
+                .append('#').append(sequence).append(' ').append(time())
+                .append(" [").append(threadName).append('#').append(threadId).append("] ")
+                .append(type);
+        if (messageTemplate != null) {
+            text.append(": ").append(messageTemplate);
+        }
+        if (causeDepth > 0) {
+            text.append(" (root cause ").append(rootCauseType).append(" at depth ").append(causeDepth).append(')');
+        }
+        for (String frame : frames) {
+            text.append(System.lineSeparator()).append("\tat ").append(frame);
+        }
+        return text.toString();
+    }
+}
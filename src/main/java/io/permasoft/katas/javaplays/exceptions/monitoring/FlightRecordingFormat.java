@@ -0,0 +1,157 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a flight recording file, shared by {@link ExceptionFlightRecorder} and {@link FlightRecordingReader}.
+ * <pre>
+ * header  : magic, version, slot count, slot size, symbol capacity, next sequence, symbol count, symbol bytes used
+ * slots   : slot count fixed size records, record n is written to slot n % slot count
+ * symbols : interned strings, [length as unsigned short][UTF-8 bytes], symbol id n is the n-th one, 0 means unknown
+ * </pre>
+ * A slot starts with its commit word, sequence + 1 once completely written, so that torn or overwritten slots are detected.
+ * Symbols are identified by a FNV-1a hash of their text, fed char by char so that no String is built to look them up.
+ */
+final class FlightRecordingFormat {
+    static final int MAGIC = 0x45584652; // EXFR
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SLOT_COUNT_OFFSET = 8;
+    static final int SLOT_SIZE_OFFSET = 12;
+    static final int SYMBOL_CAPACITY_OFFSET = 16;
+    static final int NEXT_SEQUENCE_OFFSET = 24;
+    static final int SYMBOL_COUNT_OFFSET = 32;
+    static final int SYMBOL_BYTES_OFFSET = 36;
+    static final int HEADER_SIZE = 64;
+
+    static final int SLOT_SIZE = 128;
+    static final int COMMIT = 0;
+    static final int EPOCH_MILLIS = 8;
+    static final int THREAD_ID = 16;
+    static final int TYPE = 24;
+    static final int ROOT_CAUSE_TYPE = 28;
+    static final int MESSAGE = 32;
+    static final int THREAD_NAME = 36;
+    static final int CAUSE_DEPTH = 40;
+    static final int FRAME_COUNT = 44;
+    static final int FRAMES = 48;
+    static final int MAX_FRAMES = (SLOT_SIZE - FRAMES) / Integer.BYTES;
+
+    static final int UNKNOWN_SYMBOL = 0;
+    static final int MAX_SYMBOL_LENGTH = 0xffff;
+    static final String PLACEHOLDER = "{}";
+
+    /**
+     * Atomic access to the long words of the mapped file : slot claims and commits.
+     */
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private FlightRecordingFormat() {
+    }
+
+    static long fileSize(int slotCount, int symbolCapacity) {
+        return HEADER_SIZE + (long) slotCount * SLOT_SIZE + symbolCapacity;
+    }
+
+    static int slotOffset(long sequence, int slotCount) {
+        return HEADER_SIZE + (int) (sequence % slotCount) * SLOT_SIZE;
+    }
+
+    static int symbolsOffset(int slotCount) {
+        return HEADER_SIZE + slotCount * SLOT_SIZE;
+    }
+
+    static long start() {
+        return FNV_OFFSET;
+    }
+
+    static long mix(long hash, char c) {
+        hash ^= c & 0xff;
+        hash *= FNV_PRIME;
+        hash ^= c >>> 8;
+        return hash * FNV_PRIME;
+    }
+
+    static long mix(long hash, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = mix(hash, text.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Same hash as the decimal text of the value, without building it.
+     */
+    static long mix(long hash, int value) {
+        if (value < 0) {
+            hash = mix(hash, '-');
+            value = -value;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            hash = mix(hash, (char) ('0' + value / divisor % 10));
+        }
+        return hash;
+    }
+
+    /**
+     * A frame symbol reads as class.method:line.
+     */
+    static long frameHash(StackTraceElement frame) {
+        long hash = mix(start(), frame.getClassName());
+        hash = mix(hash, '.');
+        hash = mix(hash, frame.getMethodName());
+        hash = mix(hash, ':');
+        return mix(hash, frame.getLineNumber());
+    }
+
+    static String frameText(StackTraceElement frame) {
+        return frame.getClassName() + '.' + frame.getMethodName() + ':' + frame.getLineNumber();
+    }
+
+    /**
+     * Message templates replace every run of digits by {}, so that ids and inputs do not make each message a new symbol.
+     */
+    static long templateHash(String message) {
+        long hash = start();
+        boolean inDigits = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            if (digit && !inDigits) {
+                hash = mix(hash, PLACEHOLDER);
+            } else if (!digit) {
+                hash = mix(hash, c);
+            }
+            inDigits = digit;
+        }
+        return hash;
+    }
+
+    static String templateText(String message) {
+        StringBuilder template = new StringBuilder(message.length());
+        boolean inDigits = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            if (digit && !inDigits) {
+                template.append(PLACEHOLDER);
+            } else if (!digit) {
+                template.append(c);
+            }
+            inDigits = digit;
+        }
+        return template.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.permasoft.katas.javaplays.exceptions.monitoring.FlightRecordingFormat.*;
+
+/**
+ * Decodes a flight recording written by {@link ExceptionFlightRecorder}, typically after the recording process crashed :
+ * <pre>java -cp ... io.permasoft.katas.javaplays.exceptions.monitoring.FlightRecordingReader exceptions-flight-1234.rec [last]</pre>
+ * The file may still be written to by a live process, slots being rewritten while read are skipped.
+ */
+public final class FlightRecordingReader {
+    private static final String UNKNOWN = "?";
+
+    private FlightRecordingReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage : FlightRecordingReader <recording file> [number of most recent records]");
+            System.exit(2);
+        }
+        List<FlightRecord> records = read(Paths.get(args[0]));
+        int last = args.length == 2 ? Integer.parseInt(args[1]) : records.size();
+        for (FlightRecord record : records.subList(Math.max(0, records.size() - last), records.size())) {
+            System.out.println(record);
+        }
+    }
+
+    /**
+     * Every record still in the ring, oldest first.
+     */
+    public static List<FlightRecord> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(file + " is not a flight recording, too short");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION || buffer.getInt(SLOT_SIZE_OFFSET) != SLOT_SIZE) {
+                throw new IOException(file + " is not a version " + VERSION + " flight recording");
+            }
+            int slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+            int symbolCapacity = buffer.getInt(SYMBOL_CAPACITY_OFFSET);
+            if (slotCount <= 0 || symbolCapacity <= 0 || channel.size() != fileSize(slotCount, symbolCapacity)) {
+                throw new IOException(file + " is a truncated flight recording");
+            }
+            List<String> symbols = symbols(buffer, symbolsOffset(slotCount), symbolCapacity);
+            long next = (long) LONGS.getVolatile(buffer, NEXT_SEQUENCE_OFFSET);
+            List<FlightRecord> records = new ArrayList<>((int) Math.min(next, slotCount));
+            for (long sequence = Math.max(0, next - slotCount); sequence < next; sequence++) {
+                FlightRecord record = record(buffer, sequence, slotCount, symbols);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            return records;
+        }
+    }
+
+    private static List<String> symbols(ByteBuffer buffer, int offset, int capacity) {
+        int count = (int) INTS.getAcquire(buffer, SYMBOL_COUNT_OFFSET);
+        List<String> symbols = new ArrayList<>(count + 1);
+        symbols.add(UNKNOWN);
+        ByteBuffer area = buffer.duplicate();
+        area.position(offset).limit(offset + capacity);
+        for (int id = 1; id <= count && area.remaining() >= Short.BYTES; id++) {
+            int length = area.getShort() & MAX_SYMBOL_LENGTH;
+            if (length > area.remaining()) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            area.get(bytes);
+            symbols.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return symbols;
+    }
+
+    private static FlightRecord record(ByteBuffer buffer, long sequence, int slotCount, List<String> symbols) {
+        int slot = slotOffset(sequence, slotCount);
+        if ((long) LONGS.getAcquire(buffer, slot + COMMIT) != sequence + 1) {
+            return null;
+        }
+        int frameCount = Math.min(Math.max(buffer.getInt(slot + FRAME_COUNT), 0), MAX_FRAMES);
+        List<String> frames = new ArrayList<>(frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            frames.add(symbol(symbols, buffer.getInt(slot + FRAMES + i * Integer.BYTES)));
+        }
+        int message = buffer.getInt(slot + MESSAGE);
+        FlightRecord record = new FlightRecord(sequence,
+                buffer.getLong(slot + EPOCH_MILLIS),
+                buffer.getLong(slot + THREAD_ID),
+                symbol(symbols, buffer.getInt(slot + THREAD_NAME)),
+                symbol(symbols, buffer.getInt(slot + TYPE)),
+                symbol(symbols, buffer.getInt(slot + ROOT_CAUSE_TYPE)),
+                buffer.getInt(slot + CAUSE_DEPTH),
+                message == UNKNOWN_SYMBOL ? null : symbol(symbols, message),
+                Collections.unmodifiableList(frames));
+        // rewritten while we were reading it
+        return (long) LONGS.getAcquire(buffer, slot + COMMIT) == sequence + 1 ? record : null;
+    }
+
+    private static String symbol(List<String> symbols, int id) {
+        return id > 0 && id < symbols.size() ? symbols.get(id) : UNKNOWN;
+    }
+}
@@ -0,0 +1,141 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Log-linear latency histogram in the HdrHistogram way : 16 linear sub buckets per power of two, so about 6% precision,
+ * from 1 ns up to about 73 minutes (longer values are clamped).
+ * Recording is lock free : threads share a single stripe of counters until a compare and set on a counter fails,
+ * then the stripes in use double, threads spread over them by id, up to the concurrency given, 2 per core by default, at most 64.
+ * <p>
+ * Footprint : a stripe is 624 longs, about 5 KB, allocated on first use : none while idle, one while uncontended,
+ * at most one per unit of concurrency, so 320 KB at 64. A {@link RollingLatency} of the default 6 slots holds 12 histograms : a method
+ * takes about 60 KB once every slot recorded without contention, at most 12 times the stripe cap times 5 KB.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 42;
+    static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    static final int BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes;
+    private final AtomicInteger stripesInUse = new AtomicInteger(1);
+
+    public LatencyHistogram() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param concurrency threads expected to record at the same time, caps the stripes
+     */
+    public LatencyHistogram(int concurrency) {
+        this.stripes = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, Math.min(concurrency, 64))));
+    }
+
+    public void record(long nanos) {
+        int inUse = stripesInUse.get();
+        int stripe = (int) Thread.currentThread().getId() & (inUse - 1);
+        AtomicLongArray counts = stripes.get(stripe);
+        if (counts == null) {
+            stripes.compareAndSet(stripe, null, new AtomicLongArray(BUCKETS));
+            counts = stripes.get(stripe);
+        }
+        int index = bucketIndex(nanos);
+        long count = counts.get(index);
+        if (!counts.compareAndSet(index, count, count + 1)) {
+            if (inUse < stripes.length()) { // contended : spread the next recordings
+                stripesInUse.compareAndSet(inUse, inUse << 1);
+            }
+            counts.getAndIncrement(index);
+        }
+    }
+
+    int stripesInUse() {
+        return stripesInUse.get();
+    }
+
+    /**
+     * Adds this histogram counts to the given buckets, concurrent recordings may or may not be seen.
+     */
+    public void addTo(long[] buckets) {
+        for (int s = 0; s < stripes.length(); s++) {
+            AtomicLongArray counts = stripes.get(s);
+            if (counts != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    buckets[i] += counts.get(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Percentiles of everything recorded so far, concurrent recordings may or may not be seen.
+     */
+    public LatencySnapshot.Distribution distribution() {
+        long[] buckets = newBuckets();
+        addTo(buckets);
+        return LatencySnapshot.Distribution.of(buckets);
+    }
+
+    public void reset() {
+        for (int s = 0; s < stripes.length(); s++) {
+            AtomicLongArray counts = stripes.get(s);
+            if (counts != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts.set(i, 0);
+                }
+            }
+        }
+    }
+
+    static long[] newBuckets() {
+        return new long[BUCKETS];
+    }
+
+    static int bucketIndex(long value) {
+        long v = value < 0 ? 0 : Math.min(value, MAX_VALUE);
+        if (v < 2 * SUB_BUCKETS) {
+            return (int) v;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (v >>> shift);
+    }
+
+    /**
+     * Highest value that falls in the same bucket, as HdrHistogram reports percentiles.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    static long count(long[] buckets) {
+        long count = 0;
+        for (long bucket : buckets) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    static long valueAtPercentile(long[] buckets, long count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(buckets.length - 1);
+    }
+}
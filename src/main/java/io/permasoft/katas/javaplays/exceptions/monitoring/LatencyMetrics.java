@@ -0,0 +1,51 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per method latencies fed by the @Logging aspect, queryable without parsing logs.
+ * Default window is the last minute, in 6 slots of 10 seconds.
+ */
+@Component
+public class LatencyMetrics {
+    private final Duration slotDuration;
+    private final int slotCount;
+    private final ConcurrentMap<String, RollingLatency> latencies = new ConcurrentHashMap<>();
+
+    public LatencyMetrics() {
+        this(10_000, 6);
+    }
+
+    @Autowired
+    public LatencyMetrics(@Value("${metrics.latency.slot-millis:10000}") long slotMillis,
+                          @Value("${metrics.latency.slots:6}") int slotCount) {
+        this.slotDuration = Duration.ofMillis(slotMillis);
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Callers shall keep the returned instance to record into it, instead of looking it up on every call.
+     */
+    public RollingLatency latency(String name) {
+        return latencies.computeIfAbsent(name, n -> new RollingLatency(n, slotDuration, slotCount));
+    }
+
+    public Optional<LatencySnapshot> snapshot(String name) {
+        return Optional.ofNullable(latencies.get(name)).map(RollingLatency::snapshot);
+    }
+
+    public List<LatencySnapshot> snapshots() {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        latencies.values().forEach(latency -> snapshots.add(latency.snapshot()));
+        return snapshots;
+    }
+}
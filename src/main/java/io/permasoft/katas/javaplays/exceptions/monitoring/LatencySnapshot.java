@@ -0,0 +1,109 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable view of a method latencies over the rolling window, values in nanoseconds.
+ */
+public class LatencySnapshot {
+    private final String name;
+    private final Duration window;
+    private final Distribution successes;
+    private final Distribution failures;
+    private final Map<String, Long> failuresByType;
+
+    LatencySnapshot(String name, Duration window, Distribution successes, Distribution failures, Map<String, Long> failuresByType) {
+        this.name = name;
+        this.window = window;
+        this.successes = successes;
+        this.failures = failures;
+        this.failuresByType = Collections.unmodifiableMap(failuresByType);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    public Distribution successes() {
+        return successes;
+    }
+
+    public Distribution failures() {
+        return failures;
+    }
+
+    public Map<String, Long> failuresByType() {
+        return failuresByType;
+    }
+
+    public long count() {
+        return successes.count() + failures.count();
+    }
+
+    public double errorRate() {
+        long count = count();
+        return count == 0 ? 0.0 : (double) failures.count() / count;
+    }
+
+    @Override
+    public String toString() {
+        return name + " over " + window + " : " + count() + " calls, error rate " + errorRate()
+                + ", successes " + successes + ", failures " + failures + " " + failuresByType;
+    }
+
+    public static class Distribution {
+        private final long count;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        private Distribution(long count, long p50, long p99, long p999, long max) {
+            this.count = count;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        static Distribution of(long[] buckets) {
+            long count = LatencyHistogram.count(buckets);
+            return new Distribution(count,
+                    LatencyHistogram.valueAtPercentile(buckets, count, 50.0),
+                    LatencyHistogram.valueAtPercentile(buckets, count, 99.0),
+                    LatencyHistogram.valueAtPercentile(buckets, count, 99.9),
+                    LatencyHistogram.valueAtPercentile(buckets, count, 100.0));
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long p50() {
+            return p50;
+        }
+
+        public long p99() {
+            return p99;
+        }
+
+        public long p999() {
+            return p999;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count + ", p50=" + p50 + "ns, p99=" + p99 + "ns, p999=" + p999 + "ns, max=" + max + "ns}";
+        }
+    }
+}
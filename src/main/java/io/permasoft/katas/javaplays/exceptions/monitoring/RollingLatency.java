@@ -0,0 +1,88 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one method over a rolling window made of a ring of time slots.
+ * Successes and failures go to separate histograms, failures are also counted by exception type.
+ * The first recording in a new slot period recycles the oldest slot with a CAS, no lock is taken :
+ * a recording racing with that recycling may be lost, which is fine for monitoring.
+ * Each slot holds two {@link LatencyHistogram}s, about 10 KB once used without contention, so about 60 KB per method with the
+ * default 6 slots of {@link LatencyMetrics}. See {@link LatencyHistogram} for the contended footprint.
+ */
+public class RollingLatency {
+    private final String name;
+    private final long slotNanos;
+    private final Slot[] slots;
+
+    public RollingLatency(String name, Duration slotDuration, int slotCount) {
+        this.name = name;
+        this.slotNanos = slotDuration.toNanos();
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void record(long nanos, Throwable failure) {
+        long period = Math.floorDiv(System.nanoTime(), slotNanos);
+        Slot slot = slots[(int) Math.floorMod(period, (long) slots.length)];
+        long slotPeriod = slot.period.get();
+        if (slotPeriod < period && slot.period.compareAndSet(slotPeriod, period)) {
+            slot.reset();
+        }
+        if (failure == null) {
+            slot.successes.record(nanos);
+        } else {
+            slot.failures.record(nanos);
+            String type = failure.getClass().getName();
+            LongAdder count = slot.failuresByType.get(type);
+            if (count == null) {
+                count = slot.failuresByType.computeIfAbsent(type, t -> new LongAdder());
+            }
+            count.increment();
+        }
+    }
+
+    public LatencySnapshot snapshot() {
+        long period = Math.floorDiv(System.nanoTime(), slotNanos);
+        long[] successes = LatencyHistogram.newBuckets();
+        long[] failures = LatencyHistogram.newBuckets();
+        Map<String, Long> failuresByType = new TreeMap<>();
+        for (Slot slot : slots) {
+            long slotPeriod = slot.period.get();
+            if (slotPeriod > period - slots.length && slotPeriod <= period) {
+                slot.successes.addTo(successes);
+                slot.failures.addTo(failures);
+                slot.failuresByType.forEach((type, count) -> failuresByType.merge(type, count.sum(), Long::sum));
+            }
+        }
+        return new LatencySnapshot(name, Duration.ofNanos(slotNanos * slots.length),
+                LatencySnapshot.Distribution.of(successes),
+                LatencySnapshot.Distribution.of(failures),
+                failuresByType);
+    }
+
+    private static final class Slot {
+        private final AtomicLong period = new AtomicLong(Long.MIN_VALUE);
+        private final LatencyHistogram successes = new LatencyHistogram();
+        private final LatencyHistogram failures = new LatencyHistogram();
+        private final ConcurrentMap<String, LongAdder> failuresByType = new ConcurrentHashMap<>();
+
+        private void reset() {
+            successes.reset();
+            failures.reset();
+            failuresByType.clear();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring.events;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One ExceptionDao call made by ExceptionStore, with its outcome : success, failure outcome or thrown.
+ * Frequent, so recorded without stack trace.
+ */
+@Name(ExceptionEvents.PREFIX + "DaoCall")
+@Label("DAO Call")
+@Category({ExceptionEvents.CATEGORY, "Persistence"})
+@Description("ExceptionDao call made by ExceptionStore and its outcome")
+@StackTrace(false)
+@Threshold("0 ms")
+public class DaoCallEvent extends jdk.jfr.Event {
+    @Label("DAO Method")
+    private String method;
+    @Label("Input")
+    private int input;
+    @Label("Outcome")
+    private String outcome;
+    @Label("Failure")
+    @Description("Failure reason of a failure outcome, exception class of a thrown one")
+    private String failure;
+
+    /**
+     * Ends the call, committed only when recorded and above threshold.
+     */
+    public void record(String method, int input, IntOutcome result) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.input = input;
+            this.outcome = result.isSuccess() ? ExceptionEvents.SUCCESS : ExceptionEvents.FAILURE;
+            this.failure = result.isSuccess() ? null : ((IntOutcome.Failure) result).reason().name();
+            commit();
+        }
+    }
+
+    public void recordSuccess(String method, int input) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.input = input;
+            this.outcome = ExceptionEvents.SUCCESS;
+            commit();
+        }
+    }
+
+    public void recordThrown(String method, int input, Throwable thrown) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.input = input;
+            this.outcome = ExceptionEvents.THROWN;
+            this.failure = thrown.getClass().getName();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One call of a @Logging endpoint, as measured by the LoggingInOuts aspect.
+ */
+@Name(ExceptionEvents.PREFIX + "EndpointCall")
+@Label("Endpoint Call")
+@Category({ExceptionEvents.CATEGORY, "Endpoints"})
+@Description("Call of a @Logging endpoint and its outcome")
+@StackTrace(false)
+@Threshold("0 ms")
+public class EndpointCallEvent extends jdk.jfr.Event {
+    @Label("Endpoint")
+    private String endpoint;
+    @Label("Outcome")
+    private String outcome;
+    @Label("Failure Type")
+    private String failureType;
+
+    public void recordSuccess(String endpoint) {
+        end();
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.outcome = ExceptionEvents.SUCCESS;
+            commit();
+        }
+    }
+
+    public void recordThrown(String endpoint, Throwable thrown) {
+        end();
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.outcome = ExceptionEvents.THROWN;
+            this.failureType = thrown.getClass().getName();
+            commit();
+        }
+    }
+}
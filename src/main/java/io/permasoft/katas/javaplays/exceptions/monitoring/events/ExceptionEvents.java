@@ -0,0 +1,29 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring.events;
+
+/**
+ * Java Flight Recorder events of the throw, wrap, recover and fail points, named io.permasoft.exceptions.*.
+ * Each one can be tuned like JDK events, for instance in a copy of default.jfc :
+ * <pre>
+ * &lt;event name="io.permasoft.exceptions.DaoCall"&gt;
+ *   &lt;setting name="enabled"&gt;true&lt;/setting&gt;
+ *   &lt;setting name="stackTrace"&gt;false&lt;/setting&gt;
+ *   &lt;setting name="threshold"&gt;1 ms&lt;/setting&gt;
+ * &lt;/event&gt;
+ * </pre>
+ * None records its stack trace by default. The exceptions.jfc resource enables the events with the stack traces of the use case ones,
+ * start a recording with its path as settings, or load it with {@link jdk.jfr.Configuration#create(java.io.Reader)}.
+ * Call sites create the event, begin it when it has a duration, and only fill it once shouldCommit says it is recorded :
+ * without a recording the event is never committed and escape analysis removes its allocation.
+ * Use case events are instant events, only created on their failure path and never begun : they have no threshold setting,
+ * and carry the time since the use case started as a field instead of a duration.
+ */
+public final class ExceptionEvents {
+    public static final String PREFIX = "io.permasoft.exceptions.";
+    static final String CATEGORY = "Exceptions Kata";
+    static final String SUCCESS = "success";
+    static final String FAILURE = "failure";
+    static final String THROWN = "thrown";
+
+    private ExceptionEvents() {
+    }
+}
@@ -0,0 +1,43 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A use case resuming with a default result despite a failure, an instant event created at the recovery decision only :
+ * never begun, so no threshold applies, the time from the start of the use case is its use case duration field. Without stack trace unless a .jfc turns it on, see {@link ExceptionEvents}.
+ */
+@Name(ExceptionEvents.PREFIX + "Recovery")
+@Label("Recovery")
+@Category({ExceptionEvents.CATEGORY, "Use Cases"})
+@Description("Use case recovering from a failure, with the time from its start to the recovery decision")
+@StackTrace(false)
+public class RecoveryEvent extends jdk.jfr.Event {
+    @Label("Use Case")
+    private String useCase;
+    @Label("Failure Type")
+    private String failureType;
+    @Label("Failure Message")
+    private String failureMessage;
+    @Label("Use Case Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    private long useCaseDuration;
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the use case started
+     */
+    public static void record(String useCase, Throwable failure, long startNanos) {
+        RecoveryEvent event = new RecoveryEvent();
+        if (event.shouldCommit()) {
+            event.useCase = useCase;
+            event.failureType = failure.getClass().getName();
+            event.failureMessage = failure.getMessage();
+            event.useCaseDuration = System.nanoTime() - startNanos;
+            event.commit();
+        }
+    }
+}
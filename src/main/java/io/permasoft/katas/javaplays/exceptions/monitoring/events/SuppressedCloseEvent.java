@@ -0,0 +1,43 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A resource failing to close after the try block already failed : try-with-resources suppressed its exception.
+ * An instant event, no threshold applies. Without stack trace unless a .jfc turns it on.
+ */
+@Name(ExceptionEvents.PREFIX + "SuppressedClose")
+@Label("Suppressed Close Failure")
+@Category({ExceptionEvents.CATEGORY, "Use Cases"})
+@Description("Close failure of a resource suppressed by the failure of its try block")
+@StackTrace(false)
+public class SuppressedCloseEvent extends jdk.jfr.Event {
+    @Label("Use Case")
+    private String useCase;
+    @Label("Close Failure Type")
+    private String closeFailureType;
+    @Label("Close Failure Message")
+    private String closeFailureMessage;
+    @Label("Primary Failure Type")
+    private String primaryFailureType;
+
+    /**
+     * One event per suppressed exception of the primary failure.
+     */
+    public static void recordAll(String useCase, Throwable primaryFailure) {
+        for (Throwable suppressed : primaryFailure.getSuppressed()) {
+            SuppressedCloseEvent event = new SuppressedCloseEvent();
+            if (event.shouldCommit()) {
+                event.useCase = useCase;
+                event.closeFailureType = suppressed.getClass().getName();
+                event.closeFailureMessage = suppressed.getMessage();
+                event.primaryFailureType = primaryFailure.getClass().getName();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A use case failing : the caught exception is wrapped into the one thrown to the caller. An instant event created at the wrapping only,
+ * never begun, so no threshold applies : the time from the start of the use case is its use case duration field. Without stack trace unless a .jfc turns it on.
+ */
+@Name(ExceptionEvents.PREFIX + "Wrap")
+@Label("Wrap")
+@Category({ExceptionEvents.CATEGORY, "Use Cases"})
+@Description("Use case failing, its cause wrapped into the exception thrown to the caller, with the time from its start to the wrapping")
+@StackTrace(false)
+public class WrapEvent extends jdk.jfr.Event {
+    @Label("Use Case")
+    private String useCase;
+    @Label("Cause Type")
+    private String causeType;
+    @Label("Cause Message")
+    private String causeMessage;
+    @Label("Wrapper Type")
+    private String wrapperType;
+    @Label("Use Case Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    private long useCaseDuration;
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the use case started
+     */
+    public static void record(String useCase, Throwable cause, Throwable wrapper, long startNanos) {
+        WrapEvent event = new WrapEvent();
+        if (event.shouldCommit()) {
+            event.useCase = useCase;
+            event.causeType = cause.getClass().getName();
+            event.causeMessage = cause.getMessage();
+            event.wrapperType = wrapper.getClass().getName();
+            event.useCaseDuration = System.nanoTime() - startNanos;
+            event.commit();
+        }
+    }
+}
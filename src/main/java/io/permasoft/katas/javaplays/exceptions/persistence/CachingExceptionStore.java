@@ -0,0 +1,212 @@
+package io.permasoft.katas.javaplays.exceptions.persistence;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * ExceptionStore remembering DAO outcomes per id : successes for ttl, known failures for their own negativeTtl,
+ * so a known invalid id no longer reaches the library. Every outcome returning or checked throwing method of the store answers from this cache.
+ * Hits and waits for a shared load are served before the guard of the method : they neither count for its circuit breaker,
+ * nor are shed while it is open, nor hold a bulkhead permit. Only the DAO load of a miss runs inside the guard.
+ * <p>
+ * Concurrent misses on the same id wait for a single load. Beyond maxSize, the least recently used tenth of the entries is evicted at once
+ * by one thread at a time, other threads do not wait for it.
+ */
+public class CachingExceptionStore extends ExceptionStore {
+    private static final long ACCESS_GRANULARITY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentMap<Integer, CompletableFuture<Cached>> cache = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock eviction = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public CachingExceptionStore(ExceptionDao expectionDao, int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this(expectionDao, StoreGuards.NONE, maxSize, ttlMillis, negativeTtlMillis);
+    }
+
+    public CachingExceptionStore(ExceptionDao expectionDao, StoreGuards guards, int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this(expectionDao, guards, maxSize, ttlMillis, negativeTtlMillis, System::nanoTime);
+    }
+
+    CachingExceptionStore(ExceptionDao expectionDao, StoreGuards guards, int maxSize, long ttlMillis, long negativeTtlMillis, LongSupplier nanoClock) {
+        super(expectionDao, guards);
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected IntOutcome outcome(StoreMethod method, int positiveId) {
+        Integer key = positiveId;
+        while (true) {
+            CompletableFuture<Cached> cached = cache.get(key);
+            if (cached == null) {
+                CompletableFuture<Cached> loading = new CompletableFuture<>();
+                cached = cache.putIfAbsent(key, loading);
+                if (cached == null) {
+                    misses.increment();
+                    return load(method, key, loading);
+                }
+            }
+            Cached entry = cached.getNow(null);
+            if (entry == null) {
+                sharedLoads.increment();
+                return await(cached).outcome;
+            }
+            long now = nanoClock.getAsLong();
+            if (now - entry.expiresAt >= 0) {
+                if (cache.remove(key, cached)) {
+                    expirations.increment();
+                }
+                continue;
+            }
+            entry.accessed(now);
+            (entry.outcome.isSuccess() ? hits : negativeHits).increment();
+            return entry.outcome;
+        }
+    }
+
+    private IntOutcome load(StoreMethod method, Integer key, CompletableFuture<Cached> loading) {
+        try {
+            IntOutcome outcome = guardedOutcome(method, key);
+            long now = nanoClock.getAsLong();
+            long ttl = outcome.isSuccess() ? ttlNanos : negativeTtlNanos;
+            loading.complete(new Cached(outcome, now + ttl, now));
+            if (ttl <= 0) {
+                cache.remove(key, loading);
+            } else if (cache.size() > maxSize) {
+                evictLeastRecentlyUsed();
+            }
+            return outcome;
+        } catch (Throwable t) { // waiters get the same failure, next call loads again
+            cache.remove(key, loading);
+            loading.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    private static Cached await(CompletableFuture<Cached> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        if (!eviction.tryLock()) {
+            return;
+        }
+        try {
+            int excess = cache.size() - maxSize;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<Integer, CompletableFuture<Cached>>> loaded = new ArrayList<>(cache.size());
+            for (Map.Entry<Integer, CompletableFuture<Cached>> entry : cache.entrySet()) {
+                if (entry.getValue().getNow(null) != null) {
+                    loaded.add(entry);
+                }
+            }
+            loaded.sort(Comparator.comparingLong(entry -> entry.getValue().getNow(null).lastAccess));
+            int toEvict = Math.min(loaded.size(), excess + maxSize / 10);
+            for (int i = 0; i < toEvict; i++) {
+                if (cache.remove(loaded.get(i).getKey(), loaded.get(i).getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            eviction.unlock();
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Known failures answered from the cache, without calling the DAO.
+     */
+    public long negativeHits() {
+        return negativeHits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Misses that waited for the load of another thread instead of calling the DAO.
+     */
+    public long sharedLoads() {
+        return sharedLoads.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingExceptionStore{size=" + size() + ", hits=" + hits() + ", negativeHits=" + negativeHits() + ", misses=" + misses()
+                + ", sharedLoads=" + sharedLoads() + ", evictions=" + evictions() + ", expirations=" + expirations() + "}";
+    }
+
+    private static final class Cached {
+        private final IntOutcome outcome;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private Cached(IntOutcome outcome, long expiresAt, long lastAccess) {
+            this.outcome = outcome;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        /**
+         * Hot ids are read by many threads : only write the access time when it moved enough, to keep the cache line shared.
+         */
+        private void accessed(long now) {
+            if (now - lastAccess > ACCESS_GRANULARITY_NANOS) {
+                lastAccess = now;
+            }
+        }
+    }
+}
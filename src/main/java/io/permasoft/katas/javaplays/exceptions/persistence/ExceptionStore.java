@@ -1,39 +1,150 @@
 package io.permasoft.katas.javaplays.exceptions.persistence;
 
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
 import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.monitoring.events.DaoCallEvent;
 import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import io.permasoft.katas.javaplays.exceptions.resilience.Guard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.function.IntFunction;
+
 @Repository
 public class ExceptionStore {
     private static final Logger log = LoggerFactory.getLogger(ExceptionStore.class);
     private ExceptionDao expectionDao;
+    private StoreGuards guards;
 
-    @Autowired
     public ExceptionStore(ExceptionDao expectionDao) {
+        this(expectionDao, StoreGuards.NONE);
+    }
+
+    @Autowired
+    public ExceptionStore(ExceptionDao expectionDao, StoreGuards guards) {
         this.expectionDao = expectionDao;
+        this.guards = guards;
     }
 
     public Integer dontThrow() throws YourUseOfMyLibraryIsInvalid {
-        return expectionDao.apiWhenLibWantsYouToHandleItsExceptions(1);
+        return outcome(StoreMethod.DONT_THROW, 1).orElseThrow();
     }
 
     public Integer throwError() {
-        return expectionDao.apiWhenApplicationCantKeepRunning(1);
+        return guarded(StoreMethod.THROW_ERROR, "apiWhenApplicationCantKeepRunning", 1, expectionDao::apiWhenApplicationCantKeepRunning);
     }
 
     public Integer throwUnchecked() {
-        return expectionDao.apiWhenLibShallWork(-1);
+        return guarded(StoreMethod.THROW_UNCHECKED, "apiWhenLibShallWork", -1, expectionDao::apiWhenLibShallWork);
     }
 
     public Integer throwChecked() throws YourUseOfMyLibraryIsInvalid {
-        return expectionDao.apiWhenLibWantsYouToHandleItsExceptions(-1);
+        return outcome(StoreMethod.THROW_CHECKED, -1).orElseThrow();
     }
 
     public Integer conditionalThrow (int positiveId) throws YourUseOfMyLibraryIsInvalid {
-        return expectionDao.apiWhenLibWantsYouToHandleItsExceptions(positiveId);
+        return outcome(StoreMethod.CONDITIONAL_THROW, positiveId).orElseThrow();
+    }
+
+    /**
+     * Same as conditionalThrow without exceptions nor boxing : invalid ids are reported as a failure value.
+     */
+    public IntOutcome conditionalOutcome(int positiveId) {
+        return outcome(StoreMethod.CONDITIONAL_OUTCOME, positiveId);
+    }
+
+    /**
+     * Bulk variant of conditionalOutcome : one result for all ids, failures are collected in its failure table.
+     */
+    public BulkOutcome conditionalOutcomes(int[] positiveIds) {
+        BulkOutcome.Builder outcomes = BulkOutcome.builder(positiveIds.length);
+        for (int positiveId : positiveIds) {
+            outcomes.add(conditionalOutcome(positiveId));
+        }
+        return outcomes.build();
+    }
+
+    /**
+     * Answers every outcome returning or checked throwing method : by default the guarded DAO load,
+     * subclasses may answer some calls another way, before any guard, and delegate the others to {@link #guardedOutcome}.
+     */
+    protected IntOutcome outcome(StoreMethod method, int positiveId) {
+        return guardedOutcome(method, positiveId);
+    }
+
+    /**
+     * The single DAO call behind every outcome returning or checked throwing method, run inside the guard of the method if any.
+     */
+    protected IntOutcome loadOutcome(int positiveId) {
+        DaoCallEvent event = new DaoCallEvent();
+        event.begin();
+        try {
+            IntOutcome outcome = expectionDao.apiWhenLibReturnsOutcomes(positiveId);
+            event.record("apiWhenLibReturnsOutcomes", positiveId, outcome);
+            return outcome;
+        } catch (RuntimeException | Error e) {
+            event.recordThrown("apiWhenLibReturnsOutcomes", positiveId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Only dependency faults count as failures for the circuit breaker : failure outcomes of a {@link FailureReason#dependencyFault()} reason,
+     * thrown exceptions and errors. Invalid inputs and missing values, NEGATIVE_INPUT and NOT_FOUND outcomes or a thrown IllegalArgumentException,
+     * prove the dependency answered : they count as successes, a misbehaving caller shall not cut the others off.
+     */
+    protected final IntOutcome guardedOutcome(StoreMethod method, int positiveId) {
+        Guard guard = guards.of(method);
+        if (guard == null) {
+            return loadOutcome(positiveId);
+        }
+        guard.enter();
+        boolean failed = true;
+        try {
+            IntOutcome outcome = loadOutcome(positiveId);
+            failed = outcome.isFailure() && ((IntOutcome.Failure) outcome).reason().dependencyFault();
+            return outcome;
+        } catch (IllegalArgumentException invalidInput) {
+            failed = false;
+            throw invalidInput;
+        } finally {
+            guard.exit(failed);
+        }
+    }
+
+    private Integer guarded(StoreMethod method, String daoMethod, int id, IntFunction<Integer> call) {
+        Guard guard = guards.of(method);
+        if (guard == null) {
+            return daoCall(daoMethod, id, call);
+        }
+        guard.enter();
+        boolean failed = true;
+        try {
+            Integer result = daoCall(daoMethod, id, call);
+            failed = false;
+            return result;
+        } catch (IllegalArgumentException invalidInput) {
+            failed = false;
+            throw invalidInput;
+        } finally {
+            guard.exit(failed);
+        }
+    }
+
+    private static Integer daoCall(String daoMethod, int id, IntFunction<Integer> call) {
+        DaoCallEvent event = new DaoCallEvent();
+        event.begin();
+        try {
+            Integer result = call.apply(id);
+            event.recordSuccess(daoMethod, id);
+            return result;
+        } catch (RuntimeException | Error e) {
+            event.recordThrown(daoMethod, id, e);
+            throw e;
+        }
     }
 }
@@ -0,0 +1,25 @@
+package io.permasoft.katas.javaplays.exceptions.persistence;
+
+import io.permasoft.katas.javaplays.exceptions.resilience.Guard;
+
+import java.util.Map;
+
+/**
+ * Circuit breaker and bulkhead of each guarded ExceptionStore method, unguarded methods call the DAO directly.
+ */
+public final class StoreGuards {
+    public static final StoreGuards NONE = new StoreGuards(Map.of());
+
+    private final Guard[] guards = new Guard[StoreMethod.values().length];
+
+    public StoreGuards(Map<StoreMethod, Guard> guards) {
+        guards.forEach((method, guard) -> this.guards[method.ordinal()] = guard);
+    }
+
+    /**
+     * @return null when the method is not guarded
+     */
+    public Guard of(StoreMethod method) {
+        return guards[method.ordinal()];
+    }
+}
@@ -0,0 +1,32 @@
+package io.permasoft.katas.javaplays.exceptions.persistence;
+
+/**
+ * ExceptionStore methods calling the DAO, each one can be guarded on its own.
+ */
+public enum StoreMethod {
+    DONT_THROW("dontThrow"),
+    THROW_ERROR("throwError"),
+    THROW_UNCHECKED("throwUnchecked"),
+    THROW_CHECKED("throwChecked"),
+    CONDITIONAL_THROW("conditionalThrow"),
+    CONDITIONAL_OUTCOME("conditionalOutcome");
+
+    private final String methodName;
+
+    StoreMethod(String methodName) {
+        this.methodName = methodName;
+    }
+
+    public String methodName() {
+        return methodName;
+    }
+
+    public static StoreMethod of(String methodName) {
+        for (StoreMethod method : values()) {
+            if (method.methodName.equals(methodName)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("No ExceptionStore method " + methodName + " calling the DAO");
+    }
+}
@@ -1,16 +1,23 @@
 package io.permasoft.katas.javaplays.exceptions.persistence.jpa;
 
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
 import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
 import org.springframework.stereotype.Component;
 
 @Component
 public interface ExceptionDao {
 
-    default Integer apiWhenLibWantsYouToHandleItsExceptions(int id) throws YourUseOfMyLibraryIsInvalid {
-        if (id < 0) { // checked exceptions extends Exception which extends Throwable
-            throw new YourUseOfMyLibraryIsInvalid("Negative input["+id+"] is invalid");
+    default IntOutcome apiWhenLibReturnsOutcomes(int id) {
+        if (id < 0) { // expected business condition returned as a value : no throw, no stack capture, no message until asked
+            return IntOutcome.failure(FailureReason.NEGATIVE_INPUT, id);
         }
-        return Integer.valueOf(id);
+        return IntOutcome.success(id);
+    }
+
+    default Integer apiWhenLibWantsYouToHandleItsExceptions(int id) throws YourUseOfMyLibraryIsInvalid {
+        // checked exceptions extends Exception which extends Throwable
+        return Integer.valueOf(apiWhenLibReturnsOutcomes(id).orElseThrow());
     }
     default  Integer apiWhenLibShallWork(int id) {
         if (id < 0) { // unchecked Excpetion extends RuntimeException which extends Exception which extends Throwable
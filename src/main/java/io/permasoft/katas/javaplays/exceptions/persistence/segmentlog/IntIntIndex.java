@@ -0,0 +1,98 @@
+package io.permasoft.katas.javaplays.exceptions.persistence.segmentlog;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map of non negative int keys to int values, keys and values interleaved in a single int array :
+ * no boxing, no entry objects, one cache line holds several probes.
+ * Not thread safe : puts write into the live table, only a resize swaps it for a new one. {@link SegmentLog} writes it under
+ * the write lock of its StampedLock and reads it optimistically : a read racing with a put may see a half written slot,
+ * it is only trusted once the stamp validates, else it is done again under the read lock. The table stays at most half full,
+ * so a probe always ends on a free slot, even on a racy read.
+ */
+final class IntIntIndex {
+    /**
+     * Key of the unused slots of a {@link #table()}.
+     */
+    static final int FREE = -1;
+    private static final float MAX_LOAD = 0.5f;
+
+    private int[] table;
+    private int size;
+
+    IntIntIndex(int expectedSize) {
+        this.table = newTable(Math.max(8, Integer.highestOneBit(Math.max(1, (int) (expectedSize / MAX_LOAD)) - 1) << 1));
+    }
+
+    /**
+     * The table currently in use, for lock free reads with {@link #valueIndex(int[], int)}.
+     */
+    int[] table() {
+        return table;
+    }
+
+    /**
+     * Index of the value of the key in the table, -1 when the key is absent : values may take any int, no sentinel is left.
+     */
+    static int valueIndex(int[] table, int key) {
+        int mask = (table.length >> 1) - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int found = table[slot << 1];
+            if (found == key) {
+                return (slot << 1) + 1;
+            }
+            if (found == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    void put(int key, int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("negative key " + key);
+        }
+        if (size + 1 > (table.length >> 1) * MAX_LOAD) {
+            resize();
+        }
+        if (insert(table, key, value)) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        int[] bigger = newTable(table.length);
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != FREE) {
+                insert(bigger, table[i], table[i + 1]);
+            }
+        }
+        table = bigger;
+    }
+
+    private static boolean insert(int[] table, int key, int value) {
+        int mask = (table.length >> 1) - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int found = table[slot << 1];
+            if (found == FREE || found == key) {
+                table[(slot << 1) + 1] = value;
+                table[slot << 1] = key;
+                return found == FREE;
+            }
+        }
+    }
+
+    private static int[] newTable(int slots) {
+        int[] table = new int[slots * 2];
+        Arrays.fill(table, FREE);
+        return table;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,596 @@
+package io.permasoft.katas.javaplays.exceptions.persistence.segmentlog;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Append only int to int store : every put is a fixed size record appended to the current memory mapped segment,
+ * lookups never touch the files but an in memory primitive index of the latest value of each id.
+ * <p>
+ * A record is its id, its value and a check word mixed from both, never 0, so replaying a segment stops at the first record
+ * whose check does not match : the zeroed end of the segment or a record torn by a crash, which is then wiped.
+ * <p>
+ * Durability is a group commit : writers append under a short lock, then wait for a force covering their record.
+ * One of them leads : it lets the writers still appending join for a few microseconds, then forces everything appended so far,
+ * while the others wait on a condition and are released together once it is done, so N concurrent writers pay about one fsync
+ * instead of N. Without sync on write, records reach the disk when the operating system writes the mapped pages back,
+ * or at {@link #sync()} and {@link #close()}, and survive a crash of the JVM, not of the machine.
+ * <p>
+ * Rolling only switches to a new segment under the append lock : the full one is forced, and the log compacted once it holds
+ * more than maxSegments, by a background thread of the log. Compaction snapshots the index under the lock, rewrites its
+ * live entries into new segments and forces them while writers go on appending, then swaps them for the sealed segments
+ * they replace and deletes those. Compacted segments are named after the last segment they replace and sort just before it,
+ * so recovery replays them after the older segments and before the current one : a crash during compaction only replays
+ * the same latest values twice. A failure of the background thread fails the following puts.
+ */
+public class SegmentLog implements AutoCloseable {
+    static final int RECORD_SIZE = 3 * Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int NUMBER_DIGITS = 16;
+    private static final long GATHER_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long QUIET_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    private final boolean syncOnWrite;
+    private final StampedLock appendLock = new StampedLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private final AtomicInteger writers = new AtomicInteger();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final IntIntIndex index;
+    private final LongAdder forces = new LongAdder();
+    private final ExecutorService maintenance;
+    private volatile int[] table;
+    private volatile IOException failure;
+    private Segment current;
+    private volatile long appended;
+    private volatile long durable;
+    private boolean forcing;
+    private long compactions;
+    private boolean compacting;
+    private boolean closed;
+
+    private SegmentLog(Path directory, FileChannel lockChannel, FileLock lock, int recordsPerSegment, int maxSegments, boolean syncOnWrite) throws IOException {
+        this.directory = directory;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.recordsPerSegment = recordsPerSegment;
+        this.maxSegments = maxSegments;
+        this.syncOnWrite = syncOnWrite;
+        this.index = new IntIntIndex(recordsPerSegment);
+        recover();
+        this.table = index.table();
+        this.maintenance = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "segment-log-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the log of the directory, replaying its segments, or starts an empty one.
+     * The directory is locked for the life of the log, a second log on it fails.
+     *
+     * @param recordsPerSegment records appended to a segment before rolling to the next one
+     * @param maxSegments       segments kept before compacting them, at least 2
+     * @param syncOnWrite       whether {@link #put(int, int)} returns only once its record is forced to disk
+     */
+    public static SegmentLog open(Path directory, int recordsPerSegment, int maxSegments, boolean syncOnWrite) throws IOException {
+        if (recordsPerSegment <= 0 || (long) recordsPerSegment * RECORD_SIZE > Integer.MAX_VALUE || maxSegments < 2) {
+            throw new IllegalArgumentException("invalid segment log geometry, " + recordsPerSegment + " records per segment and " + maxSegments + " segments");
+        }
+        Files.createDirectories(directory);
+        Path lockFile = directory.resolve("lock");
+        FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new IOException("segment log " + directory + " is already in use by another process");
+            }
+            return new SegmentLog(directory, channel, lock, recordsPerSegment, maxSegments, syncOnWrite);
+        } catch (OverlappingFileLockException alreadyOpen) {
+            channel.close();
+            throw new IOException("segment log " + directory + " is already in use by this process", alreadyOpen);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the value of the id, durably once returned when the log syncs on write.
+     *
+     * @throws IllegalArgumentException when the id is negative
+     * @throws UncheckedIOException     when rolling fails, or a background force or compaction failed before
+     */
+    public void put(int id, int value) {
+        if (!syncOnWrite) {
+            append(id, value);
+            return;
+        }
+        writers.incrementAndGet();
+        try {
+            sync(append(id, value));
+        } finally {
+            writers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Latest value stored for the id, or a {@link FailureReason#NOT_FOUND} failure. Reads are optimistic, they take no lock
+     * unless a write changed the index meanwhile.
+     */
+    public IntOutcome get(int id) {
+        if (id < 0) {
+            return IntOutcome.failure(FailureReason.NOT_FOUND, id);
+        }
+        long stamp = appendLock.tryOptimisticRead();
+        int[] read = table;
+        int valueIndex = IntIntIndex.valueIndex(read, id);
+        int value = valueIndex < 0 ? 0 : read[valueIndex];
+        if (!appendLock.validate(stamp)) {
+            stamp = appendLock.readLock();
+            try {
+                read = table;
+                valueIndex = IntIntIndex.valueIndex(read, id);
+                value = valueIndex < 0 ? 0 : read[valueIndex];
+            } finally {
+                appendLock.unlockRead(stamp);
+            }
+        }
+        return valueIndex < 0 ? IntOutcome.failure(FailureReason.NOT_FOUND, id) : IntOutcome.success(value);
+    }
+
+    /**
+     * Forces every record appended so far.
+     */
+    public void sync() {
+        long stamp = appendLock.readLock();
+        long sequence;
+        try {
+            sequence = appended;
+        } finally {
+            appendLock.unlockRead(stamp);
+        }
+        sync(sequence);
+    }
+
+    private long append(int id, int value) {
+        if (id < 0) {
+            throw new IllegalArgumentException("negative id " + id);
+        }
+        IOException failed = failure;
+        if (failed != null) {
+            throw new UncheckedIOException("segment log " + directory + " failed to force or compact in the background", failed);
+        }
+        long stamp = appendLock.writeLock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("segment log " + directory + " is closed");
+            }
+            if (current.records == recordsPerSegment) {
+                roll();
+            }
+            current.write(id, value);
+            index.put(id, value);
+            table = index.table();
+            return ++appended;
+        } finally {
+            appendLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Group commit : one writer forces at a time, the writers arriving meanwhile wait on the condition, then the next leader
+     * covers all of them with a single force.
+     */
+    private void sync(long sequence) {
+        if (durable >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (forcing && durable < sequence) {
+                synced.awaitUninterruptibly();
+            }
+            if (durable >= sequence) {
+                return;
+            }
+            forcing = true;
+        } finally {
+            syncLock.unlock();
+        }
+        long covered = 0;
+        try {
+            gather();
+            covered = forceAppended();
+        } finally {
+            syncLock.lock();
+            try {
+                forcing = false;
+                if (covered > durable) {
+                    durable = covered;
+                }
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lets the other writers append before the force : until each of them has a record waiting for it, or no record was appended
+     * for a few microseconds, for a hundred microseconds at most. A lone writer does not wait.
+     */
+    private void gather() {
+        long start = System.nanoTime();
+        long quietSince = start;
+        long seen = appended;
+        for (long now = start; seen - durable < writers.get() && now - quietSince < QUIET_NANOS && now - start < GATHER_NANOS; now = System.nanoTime()) {
+            Thread.yield();
+            long latest = appended;
+            if (latest != seen) {
+                seen = latest;
+                quietSince = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Forces the current segment and the sealed ones the background thread did not force yet.
+     *
+     * @return the sequence of the last record now durable
+     */
+    private long forceAppended() {
+        long covered;
+        Segment toForce;
+        List<Segment> sealed = null;
+        long stamp = appendLock.readLock();
+        try {
+            covered = appended;
+            toForce = current;
+            for (Segment segment : segments) {
+                if (segment != toForce && !segment.forced) {
+                    if (sealed == null) {
+                        sealed = new ArrayList<>();
+                    }
+                    sealed.add(segment);
+                }
+            }
+        } finally {
+            appendLock.unlockRead(stamp);
+        }
+        if (sealed != null) {
+            sealed.forEach(this::forceSealed);
+        }
+        toForce.buffer.force();
+        forces.increment();
+        return covered;
+    }
+
+    private void forceSealed(Segment segment) {
+        synchronized (segment) {
+            if (!segment.forced) {
+                segment.buffer.force();
+                segment.forced = true;
+                forces.increment();
+            }
+        }
+    }
+
+    /**
+     * Switches to a new segment, the full one is left to the background thread.
+     */
+    private void roll() {
+        Segment sealed = current;
+        try {
+            current = createSegment(sealed.number + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot roll segment log " + directory, e);
+        }
+        segments.addLast(current);
+        boolean compact = !compacting && segments.size() > maxSegments;
+        compacting |= compact;
+        maintenance.execute(() -> maintain(sealed, compact));
+    }
+
+    private void maintain(Segment sealed, boolean compact) {
+        try {
+            forceSealed(sealed);
+            if (compact) {
+                while (compactOnce()) {
+                    // segments rolled meanwhile are compacted in turn
+                }
+            }
+        } catch (IOException e) {
+            failed(e, compact);
+        } catch (UncheckedIOException e) {
+            failed(e.getCause(), compact);
+        }
+    }
+
+    private void failed(IOException e, boolean compact) {
+        failure = e;
+        if (compact) {
+            long stamp = appendLock.writeLock();
+            try {
+                compacting = false;
+            } finally {
+                appendLock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the live entries of an index snapshot into segments replacing every sealed one, then deletes those.
+     * When the live entries fill maxSegments on their own, compacting would not free anything, the log keeps growing instead.
+     *
+     * @return whether the log still holds more than maxSegments, segments having rolled meanwhile
+     */
+    private boolean compactOnce() throws IOException {
+        List<Segment> replaced;
+        int[] snapshot;
+        long stamp = appendLock.writeLock();
+        try {
+            replaced = new ArrayList<>(segments);
+            replaced.remove(replaced.size() - 1);
+            if (replaced.isEmpty() || replaced.get(replaced.size() - 1).compacted
+                    || index.size() >= (long) recordsPerSegment * (maxSegments - 1)) {
+                compacting = false;
+                return false;
+            }
+            snapshot = table.clone();
+        } finally {
+            appendLock.unlockWrite(stamp);
+        }
+        long base = replaced.get(replaced.size() - 1).number;
+        List<Segment> compacted = new ArrayList<>();
+        Segment target = null;
+        for (int i = 0; i < snapshot.length; i += 2) {
+            if (snapshot[i] == IntIntIndex.FREE) {
+                continue;
+            }
+            if (target == null || target.records == recordsPerSegment) {
+                target = mapSegment(directory.resolve(String.format("%s%0" + NUMBER_DIGITS + "d-%06d%s", SEGMENT_PREFIX, base, compacted.size(), SEGMENT_SUFFIX)), base, true);
+                compacted.add(target);
+            }
+            target.write(snapshot[i], snapshot[i + 1]);
+        }
+        compacted.forEach(this::forceSealed);
+        boolean more;
+        stamp = appendLock.writeLock();
+        try {
+            replaced.forEach(segment -> segments.removeFirst());
+            for (int i = compacted.size() - 1; i >= 0; i--) {
+                segments.addFirst(compacted.get(i));
+            }
+            compactions++;
+            more = segments.size() > maxSegments;
+            compacting = more;
+        } finally {
+            appendLock.unlockWrite(stamp);
+        }
+        for (Segment segment : replaced) {
+            Files.delete(segment.file);
+        }
+        return more;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        for (Path file : files) {
+            Segment segment = mapSegment(file, number(file), isCompacted(file));
+            segment.replay(index);
+            segment.forced = true;
+            segments.addLast(segment);
+            appended += segment.records;
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(createSegment(0));
+        }
+        if (segments.getLast().compacted) {
+            segments.addLast(createSegment(segments.getLast().number + 1));
+        }
+        current = segments.getLast();
+        current.wipeTail();
+        durable = appended;
+    }
+
+    private Segment createSegment(long number) throws IOException {
+        return mapSegment(directory.resolve(String.format("%s%0" + NUMBER_DIGITS + "d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX)), number, false);
+    }
+
+    private Segment mapSegment(Path file, long number, boolean compacted) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping outlives the channel
+            return new Segment(file, number, compacted, channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE));
+        }
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), SEGMENT_PREFIX.length() + NUMBER_DIGITS));
+    }
+
+    private static boolean isCompacted(Path file) {
+        return file.getFileName().toString().charAt(SEGMENT_PREFIX.length() + NUMBER_DIGITS) == '-';
+    }
+
+    static int check(int id, int value) {
+        long mixed = ((long) id << 32 | (value & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) | 1;
+    }
+
+    public int size() {
+        long stamp = appendLock.readLock();
+        try {
+            return index.size();
+        } finally {
+            appendLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Records appended since the log was created, replayed ones included, compactions do not count.
+     */
+    public long appended() {
+        long stamp = appendLock.readLock();
+        try {
+            return appended;
+        } finally {
+            appendLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Segment forces since the log was opened, rolls and compactions included : compare with the puts to see the group commit at work.
+     */
+    public long forces() {
+        return forces.sum();
+    }
+
+    public int segments() {
+        long stamp = appendLock.readLock();
+        try {
+            return segments.size();
+        } finally {
+            appendLock.unlockRead(stamp);
+        }
+    }
+
+    public long compactions() {
+        long stamp = appendLock.readLock();
+        try {
+            return compactions;
+        } finally {
+            appendLock.unlockRead(stamp);
+        }
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Waits for the background thread to finish its forces and compaction, forces what is left and releases the directory.
+     * The mappings are released by the garbage collector, there is no way to unmap earlier in Java 11.
+     */
+    @Override
+    public void close() throws IOException {
+        long stamp = appendLock.writeLock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            appendLock.unlockWrite(stamp);
+        }
+        maintenance.shutdown();
+        boolean interrupted = false;
+        while (!maintenance.isTerminated()) {
+            try {
+                maintenance.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long covered = forceAppended();
+        syncLock.lock();
+        try {
+            durable = Math.max(durable, covered);
+        } finally {
+            syncLock.unlock();
+        }
+        try {
+            lock.release();
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    private static final class Segment {
+        final Path file;
+        final long number;
+        final boolean compacted;
+        final MappedByteBuffer buffer;
+        int records;
+        volatile boolean forced;
+
+        Segment(Path file, long number, boolean compacted, MappedByteBuffer buffer) {
+            this.file = file;
+            this.number = number;
+            this.compacted = compacted;
+            this.buffer = buffer;
+        }
+
+        void write(int id, int value) {
+            int position = records * RECORD_SIZE;
+            buffer.putInt(position, id);
+            buffer.putInt(position + Integer.BYTES, value);
+            buffer.putInt(position + 2 * Integer.BYTES, check(id, value));
+            records++;
+        }
+
+        void replay(IntIntIndex index) {
+            int capacity = buffer.capacity() / RECORD_SIZE;
+            while (records < capacity) {
+                int position = records * RECORD_SIZE;
+                int id = buffer.getInt(position);
+                int value = buffer.getInt(position + Integer.BYTES);
+                if (id < 0 || buffer.getInt(position + 2 * Integer.BYTES) != check(id, value)) {
+                    return;
+                }
+                index.put(id, value);
+                records++;
+            }
+        }
+
+        /**
+         * Zeroes what follows the last valid record, so that a torn record is not replayed once overwritten in part.
+         */
+        void wipeTail() {
+            for (int position = records * RECORD_SIZE; position < buffer.capacity(); position += Integer.BYTES) {
+                if (buffer.getInt(position) != 0) {
+                    buffer.putInt(position, 0);
+                }
+            }
+            buffer.force();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.permasoft.katas.javaplays.exceptions.persistence.segmentlog;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+
+/**
+ * ExceptionDao answering what was stored in a {@link SegmentLog} : an id never stored is a {@link FailureReason#NOT_FOUND} failure
+ * where the default methods echo the id back, negative ids keep failing as negative inputs.
+ * Methods that throw instead report a missing id as an IllegalArgumentException, like a negative one : the log answered,
+ * so neither counts as a dependency fault for the circuit breaker of the store.
+ */
+public class SegmentLogExceptionDao implements ExceptionDao {
+    private final SegmentLog log;
+
+    public SegmentLogExceptionDao(SegmentLog log) {
+        this.log = log;
+    }
+
+    public void store(int id, int value) {
+        log.put(id, value);
+    }
+
+    @Override
+    public IntOutcome apiWhenLibReturnsOutcomes(int id) {
+        if (id < 0) {
+            return IntOutcome.failure(FailureReason.NEGATIVE_INPUT, id);
+        }
+        return log.get(id);
+    }
+
+    @Override
+    public Integer apiWhenLibShallWork(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative input[" + id + "] is illegal");
+        }
+        IntOutcome stored = log.get(id);
+        if (stored.isFailure()) {
+            throw new IllegalArgumentException(((IntOutcome.Failure) stored).message());
+        }
+        return Integer.valueOf(stored.getAsInt());
+    }
+
+    public SegmentLog log() {
+        return log;
+    }
+}
@@ -0,0 +1,208 @@
+package io.permasoft.katas.javaplays.exceptions.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a failing dependency for a while. Closed, it records the last windowSize call results in a ring,
+ * and opens once at least minimumCalls were recorded with failureRatePercent of them failed.
+ * Open, it rejects every call until openMillis elapsed, then half opens to let halfOpenCalls trial calls through :
+ * one failure opens it again, all successes close it. Trials that do not all report within another openMillis,
+ * hung or never reported, open it again too.
+ * <p>
+ * No lock : the ring and the failure count are atomics, state transitions are CAS so only one thread performs each of them.
+ * State, the time it was entered and the counters of that state are swapped together in one {@link Phase} : closing publishes
+ * a fresh window, half opening fresh trial permits, so a thread still recording in the previous phase only touches its counters,
+ * never the ones of the new phase. A call allowed while closed and completing after a transition is counted in the new state.
+ */
+public class CircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<Phase> phase;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder halfOpened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent, long openMillis, int halfOpenCalls) {
+        this(name, windowSize, minimumCalls, failureRatePercent, openMillis, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent, long openMillis, int halfOpenCalls, LongSupplier nanoClock) {
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoClock = nanoClock;
+        this.phase = new AtomicReference<>(closedPhase());
+    }
+
+    /**
+     * @return false when the call shall not be attempted, otherwise report its result with onSuccess or onFailure
+     */
+    public boolean tryAcquire() {
+        Phase current = phase.get();
+        if (current.state == State.CLOSED) {
+            return true;
+        }
+        if (current.state == State.OPEN) {
+            if (nanoClock.getAsLong() - current.since < openNanos) {
+                return reject();
+            }
+            halfOpen(current);
+            current = phase.get();
+            if (current.state != State.HALF_OPEN) {
+                return current.state == State.CLOSED || reject();
+            }
+        }
+        int permits;
+        do {
+            permits = current.permits.get();
+            if (permits <= 0) {
+                if (nanoClock.getAsLong() - current.since >= openNanos) { // trials stuck, never reported
+                    open(current);
+                }
+                return reject();
+            }
+        } while (!current.permits.compareAndSet(permits, permits - 1));
+        return true;
+    }
+
+    public void onSuccess() {
+        Phase current = phase.get();
+        if (current.state == State.CLOSED) {
+            record(current, 0);
+        } else if (current.state == State.HALF_OPEN && current.successes.incrementAndGet() >= halfOpenCalls) {
+            close(current);
+        }
+    }
+
+    public void onFailure() {
+        Phase current = phase.get();
+        if (current.state == State.CLOSED) {
+            if (record(current, 1)) {
+                open(current);
+            }
+        } else if (current.state == State.HALF_OPEN) {
+            open(current);
+        }
+    }
+
+    /**
+     * @return true when this failure made the failure rate of the window reach the threshold
+     */
+    private boolean record(Phase closed, int failed) {
+        long call = closed.calls.getAndIncrement();
+        int previous = closed.window.getAndSet((int) (call % windowSize), failed);
+        int failuresInWindow = closed.failures.addAndGet(failed - previous);
+        long recorded = Math.min(call + 1, windowSize);
+        return failed == 1 && recorded >= minimumCalls && failuresInWindow * 100L >= failureRatePercent * recorded;
+    }
+
+    /**
+     * Opens from the observed phase, unless another thread changed it meanwhile.
+     */
+    private void open(Phase from) {
+        if (phase.compareAndSet(from, new Phase(State.OPEN, nanoClock.getAsLong(), 0, 0))) {
+            opened.increment();
+            log.warn("circuit breaker {} opened from {}", name, from.state);
+        }
+    }
+
+    private void halfOpen(Phase from) {
+        if (phase.compareAndSet(from, new Phase(State.HALF_OPEN, nanoClock.getAsLong(), 0, halfOpenCalls))) {
+            halfOpened.increment();
+            log.info("circuit breaker {} half opened", name);
+        }
+    }
+
+    private void close(Phase from) {
+        if (phase.compareAndSet(from, closedPhase())) {
+            closed.increment();
+            log.info("circuit breaker {} closed", name);
+        }
+    }
+
+    private Phase closedPhase() {
+        return new Phase(State.CLOSED, nanoClock.getAsLong(), windowSize, 0);
+    }
+
+    private boolean reject() {
+        rejected.increment();
+        return false;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public State state() {
+        return phase.get().state;
+    }
+
+    public long openedCount() {
+        return opened.sum();
+    }
+
+    public long halfOpenedCount() {
+        return halfOpened.sum();
+    }
+
+    public long closedCount() {
+        return closed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" + name + " " + state() + ", opened=" + openedCount() + ", halfOpened=" + halfOpenedCount()
+                + ", closed=" + closedCount() + ", rejected=" + rejectedCount() + "}";
+    }
+
+    /**
+     * A state, the nano clock time it was entered and its counters, replaced as a whole on each transition :
+     * the ring of call results while closed, the trial permits and successes while half open.
+     */
+    private static final class Phase {
+        private final State state;
+        private final long since;
+        private final AtomicIntegerArray window;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger permits;
+        private final AtomicInteger successes = new AtomicInteger();
+
+        private Phase(State state, long since, int windowSize, int permits) {
+            this.state = state;
+            this.since = since;
+            this.window = new AtomicIntegerArray(windowSize);
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.permasoft.katas.javaplays.exceptions.resilience;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+
+/**
+ * Bulkhead then circuit breaker around one dependency call : enter before the call, exit after it whatever happened.
+ * Rejected calls fail fast with a preallocated BusinessDomainException, no stack trace nor message built per rejection.
+ */
+public final class Guard {
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final BusinessDomainException circuitOpen;
+    private final BusinessDomainException bulkheadFull;
+
+    public Guard(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.circuitOpen = BusinessDomainException.preallocated("circuit open for " + circuitBreaker.name() + ", call not attempted");
+        this.bulkheadFull = BusinessDomainException.preallocated("too many concurrent calls to " + bulkhead.name() + ", call not attempted");
+    }
+
+    public void enter() {
+        if (!bulkhead.tryAcquire()) {
+            throw bulkheadFull;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            throw circuitOpen;
+        }
+    }
+
+    public void exit(boolean failed) {
+        try {
+            if (failed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,98 @@
+package io.permasoft.katas.javaplays.exceptions.resources;
+
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencySnapshot;
+
+/**
+ * Counters of a {@link ResourcePool} at one point in time, since the pool was created.
+ */
+public class PoolStatistics {
+    private final String name;
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final long borrowed;
+    private final long timeouts;
+    private final long created;
+    private final long invalidated;
+    private final long closed;
+    private final long closeFailures;
+    private final LatencySnapshot.Distribution borrowWait;
+
+    PoolStatistics(String name, int maxSize, int active, int idle, long borrowed, long timeouts, long created,
+                   long invalidated, long closed, long closeFailures, LatencySnapshot.Distribution borrowWait) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.borrowed = borrowed;
+        this.timeouts = timeouts;
+        this.created = created;
+        this.invalidated = invalidated;
+        this.closed = closed;
+        this.closeFailures = closeFailures;
+        this.borrowWait = borrowWait;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Leased and not yet recycled.
+     */
+    public int active() {
+        return active;
+    }
+
+    public int idle() {
+        return idle;
+    }
+
+    public long borrowed() {
+        return borrowed;
+    }
+
+    public long timeouts() {
+        return timeouts;
+    }
+
+    public long created() {
+        return created;
+    }
+
+    /**
+     * Returned invalid or found invalid by the validator, then closed.
+     */
+    public long invalidated() {
+        return invalidated;
+    }
+
+    /**
+     * Closed without failure.
+     */
+    public long closed() {
+        return closed;
+    }
+
+    public long closeFailures() {
+        return closeFailures;
+    }
+
+    /**
+     * Nanoseconds waited for a free slot by each lease, timeouts excluded.
+     */
+    public LatencySnapshot.Distribution borrowWait() {
+        return borrowWait;
+    }
+
+    @Override
+    public String toString() {
+        return "Pool{" + name + " " + active + " active, " + idle + " idle of " + maxSize + ", borrowed=" + borrowed + ", timeouts=" + timeouts
+                + ", created=" + created + ", invalidated=" + invalidated + ", closed=" + closed + ", closeFailures=" + closeFailures
+                + ", borrowWait=" + borrowWait + "}";
+    }
+}
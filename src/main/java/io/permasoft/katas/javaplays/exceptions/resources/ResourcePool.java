@@ -0,0 +1,239 @@
+package io.permasoft.katas.javaplays.exceptions.resources;
+
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyHistogram;
+
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Hands out up to maxSize reusable resources instead of opening and closing one per call.
+ * Returning a {@link Lease} only queues the resource to the recycler : validation, and closing the resources found invalid,
+ * happen off the request thread. Its slot is freed once recycled, so a slow recycler shows up as borrow wait, never as
+ * more resources than maxSize.
+ * <p>
+ * A close failure is not attached to any request failure as a suppressed exception : it is counted, kept as the last one,
+ * and told to the {@link FailureObserver}. Resources are closed on the recycler, or on a dedicated close executor when given.
+ * Recently returned resources are handed out first, they are the most likely to still be warm.
+ */
+public class ResourcePool<R extends AutoCloseable> implements AutoCloseable {
+    private final String name;
+    private final Callable<? extends R> factory;
+    private final Predicate<? super R> validator;
+    private final int maxSize;
+    private final Executor recycler;
+    private final Executor closer;
+    private final FailureObserver failureObserver;
+
+    private final Semaphore permits;
+    private final Deque<R> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder closeFailures = new LongAdder();
+    private final AtomicReference<Exception> lastCloseFailure = new AtomicReference<>();
+    private volatile boolean shutdown;
+
+    /**
+     * Recycles and closes on the common fork join pool.
+     */
+    public ResourcePool(String name, Callable<? extends R> factory, Predicate<? super R> validator, int maxSize, FailureObserver failureObserver) {
+        this(name, factory, validator, maxSize, ForkJoinPool.commonPool(), null, failureObserver);
+    }
+
+    /**
+     * @param closer where invalid resources are closed, null to close them on the recycler
+     */
+    public ResourcePool(String name, Callable<? extends R> factory, Predicate<? super R> validator, int maxSize,
+                        Executor recycler, Executor closer, FailureObserver failureObserver) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("pool " + name + " needs a positive size, not " + maxSize);
+        }
+        this.name = name;
+        this.factory = factory;
+        this.validator = validator;
+        this.maxSize = maxSize;
+        this.recycler = recycler;
+        this.closer = closer == null ? recycler : closer;
+        this.failureObserver = failureObserver;
+        this.permits = new Semaphore(maxSize);
+    }
+
+    /**
+     * Borrows an idle resource, or creates one while the pool is not full, waiting up to the timeout for a free slot otherwise.
+     *
+     * @throws TimeoutException when no slot was freed in time
+     * @throws Exception        what the factory threw, the slot is freed
+     */
+    public Lease<R> lease(long timeout, TimeUnit unit) throws Exception {
+        if (shutdown) {
+            throw new IllegalStateException("pool " + name + " is closed");
+        }
+        long start = System.nanoTime();
+        if (!permits.tryAcquire(timeout, unit)) {
+            timeouts.increment();
+            throw new TimeoutException("no " + name + " resource freed within " + unit.toMillis(timeout) + " ms, " + maxSize + " in use");
+        }
+        borrowWait.record(System.nanoTime() - start);
+        R resource = idle.pollFirst();
+        if (resource != null) {
+            idleCount.decrementAndGet();
+        } else {
+            try {
+                resource = factory.call();
+            } catch (Exception | Error e) {
+                permits.release();
+                throw e;
+            }
+            created.increment();
+        }
+        active.incrementAndGet();
+        borrowed.increment();
+        return new Lease<>(this, resource);
+    }
+
+    private void giveBack(R resource, boolean valid) {
+        try {
+            recycler.execute(() -> recycle(resource, valid));
+        } catch (RejectedExecutionException recyclerStopped) {
+            recycle(resource, valid);
+        }
+    }
+
+    private void recycle(R resource, boolean valid) {
+        try {
+            active.decrementAndGet();
+            if (!shutdown && valid && isValid(resource)) {
+                idle.offerFirst(resource);
+                idleCount.incrementAndGet();
+                if (shutdown) { // closed meanwhile, its drain may have missed this one
+                    drainIdle();
+                }
+            } else {
+                invalidated.increment();
+                destroy(resource);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isValid(R resource) {
+        try {
+            return validator.test(resource);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void destroy(R resource) {
+        try {
+            closer.execute(() -> closeQuietly(resource));
+        } catch (RejectedExecutionException closerStopped) {
+            closeQuietly(resource);
+        }
+    }
+
+    private void closeQuietly(R resource) {
+        try {
+            resource.close();
+            closed.increment();
+        } catch (Exception e) {
+            closeFailures.increment();
+            lastCloseFailure.set(e);
+            failureObserver.failed(e);
+        }
+    }
+
+    private void drainIdle() {
+        for (R resource = idle.pollFirst(); resource != null; resource = idle.pollFirst()) {
+            idleCount.decrementAndGet();
+            destroy(resource);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * The last exception thrown by the close of a resource, null if none did.
+     */
+    public Exception lastCloseFailure() {
+        return lastCloseFailure.get();
+    }
+
+    public PoolStatistics statistics() {
+        return new PoolStatistics(name, maxSize, active.get(), idleCount.get(), borrowed.sum(), timeouts.sum(), created.sum(),
+                invalidated.sum(), closed.sum(), closeFailures.sum(), borrowWait.distribution());
+    }
+
+    /**
+     * Refuses new leases and closes the idle resources, leased ones are closed when returned.
+     * Executors are not shut down, they may be shared.
+     */
+    @Override
+    public void close() {
+        shutdown = true;
+        drainIdle();
+    }
+
+    @Override
+    public String toString() {
+        return statistics().toString();
+    }
+
+    /**
+     * One borrowed resource, returned to the pool when closed, closing never throws.
+     * Not thread safe : a lease belongs to the thread that borrowed it.
+     */
+    public static final class Lease<R extends AutoCloseable> implements AutoCloseable {
+        private final ResourcePool<R> pool;
+        private final R resource;
+        private boolean valid = true;
+        private boolean returned;
+
+        private Lease(ResourcePool<R> pool, R resource) {
+            this.pool = pool;
+            this.resource = resource;
+        }
+
+        public R get() {
+            if (returned) {
+                throw new IllegalStateException("resource already returned to pool " + pool.name);
+            }
+            return resource;
+        }
+
+        /**
+         * The resource shall not be reused, as after a failure that may have left it in a bad state : it is closed once returned.
+         */
+        public void invalidate() {
+            valid = false;
+        }
+
+        @Override
+        public void close() {
+            if (!returned) {
+                returned = true;
+                pool.giveBack(resource, valid);
+            }
+        }
+    }
+}
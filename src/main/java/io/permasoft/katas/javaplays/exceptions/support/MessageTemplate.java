@@ -0,0 +1,99 @@
+package io.permasoft.katas.javaplays.exceptions.support;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message of a failure kept as a template and its primitive arguments, rendered only when read.
+ * {} stands for the next argument, {cause} for the message of the cause, itself rendered straight into the same buffer when
+ * the cause has a {@link TemplatedMessage}. The pattern is split once, when the template constant is created.
+ * <pre>
+ * static final MessageTemplate NEGATIVE_INPUT = MessageTemplate.of("Negative input[{}] is invalid");
+ * </pre>
+ */
+public final class MessageTemplate implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String ARGUMENT = "{}";
+    private static final String CAUSE = "{cause}";
+    private static final int CAUSE_PART = -1;
+
+    private final String pattern;
+    private final String[] literals;
+    /**
+     * Index of the argument following each literal but the last, or {@link #CAUSE_PART}.
+     */
+    private final int[] placeholders;
+    private final int argumentCount;
+
+    private MessageTemplate(String pattern, String[] literals, int[] placeholders, int argumentCount) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.argumentCount = argumentCount;
+    }
+
+    public static MessageTemplate of(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+        int argumentCount = 0;
+        int start = 0;
+        for (int i = pattern.indexOf('{'); i >= 0; i = pattern.indexOf('{', i + 1)) {
+            boolean argument = pattern.startsWith(ARGUMENT, i);
+            if (argument || pattern.startsWith(CAUSE, i)) {
+                literals.add(pattern.substring(start, i));
+                placeholders.add(argument ? argumentCount++ : CAUSE_PART);
+                start = i + (argument ? ARGUMENT : CAUSE).length();
+                i = start - 1;
+            }
+        }
+        literals.add(pattern.substring(start));
+        return new MessageTemplate(pattern, literals.toArray(new String[0]), placeholders.stream().mapToInt(Integer::intValue).toArray(), argumentCount);
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public int argumentCount() {
+        return argumentCount;
+    }
+
+    public String render(Throwable cause, long... arguments) {
+        return renderTo(new StringBuilder(pattern.length() + 32), cause, arguments).toString();
+    }
+
+    /**
+     * Appends the message to the buffer, for appenders reusing one buffer per thread. Missing arguments render as {}.
+     */
+    public StringBuilder renderTo(StringBuilder out, Throwable cause, long... arguments) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            int placeholder = placeholders[i];
+            if (placeholder == CAUSE_PART) {
+                appendMessage(out, cause);
+            } else if (placeholder < arguments.length) {
+                out.append(arguments[placeholder]);
+            } else {
+                out.append(ARGUMENT);
+            }
+        }
+        return out.append(literals[literals.length - 1]);
+    }
+
+    /**
+     * Appends the message of the failure like String.valueOf(failure.getMessage()) would, without rendering a templated one to a String first.
+     */
+    public static StringBuilder appendMessage(StringBuilder out, Throwable failure) {
+        if (failure instanceof TemplatedMessage) {
+            ((TemplatedMessage) failure).formatMessageTo(out);
+            return out;
+        }
+        return out.append(failure == null ? null : failure.getMessage());
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
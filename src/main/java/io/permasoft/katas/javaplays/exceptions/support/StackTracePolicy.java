@@ -0,0 +1,33 @@
+package io.permasoft.katas.javaplays.exceptions.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides, per exception type, whether a new instance captures its stack trace.
+ * Full traces are the default. In stackless mode the first occurrences still get a full trace so there is something to debug,
+ * then fillInStackTrace is skipped and suppressed exceptions are disabled, which is where most of the throw cost goes.
+ */
+public class StackTracePolicy {
+    private volatile boolean stackless;
+    private volatile long fullTracesFirst;
+    private final AtomicLong captured = new AtomicLong();
+
+    public void configure(boolean stackless, long fullTracesFirst) {
+        this.fullTracesFirst = fullTracesFirst;
+        this.captured.set(0);
+        this.stackless = stackless;
+    }
+
+    public boolean isStackless() {
+        return stackless;
+    }
+
+    public boolean captureStackTrace() {
+        if (!stackless) {
+            return true;
+        }
+        long budget = fullTracesFirst;
+        // read before increment so the counter stops moving once the budget is spent, no contention in a failure storm
+        return captured.get() < budget && captured.getAndIncrement() < budget;
+    }
+}
@@ -0,0 +1,17 @@
+package io.permasoft.katas.javaplays.exceptions.support;
+
+/**
+ * Failure whose message may be a {@link MessageTemplate} not rendered yet.
+ */
+public interface TemplatedMessage {
+
+    /**
+     * The template of the message, null when the message was given as a plain String.
+     */
+    MessageTemplate messageTemplate();
+
+    /**
+     * Appends the message to the buffer, rendering the template there when getMessage was not called yet, without memoizing it.
+     */
+    void formatMessageTo(StringBuilder out);
+}
@@ -0,0 +1,35 @@
+package io.permasoft.katas.javaplays.exceptions;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.configuration.AspectsConfiguration;
+import io.permasoft.katas.javaplays.exceptions.configuration.LoggingInOuts;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+@DisplayName("Fast startup mode wires beans explicitly")
+class FastStartupApplicationTest {
+
+    @Test
+    @DisplayName("endpoint behaves as in the scanned application, only the endpoint is proxied")
+    void sameBehaviour() {
+        try (ConfigurableApplicationContext context = FastStartupApplication.run()) {
+            ExceptionEndPoint endPoint = context.getBean(ExceptionEndPoint.class);
+
+            assertThat(endPoint.endPointSucceedsHandledByFramework()).isEqualTo("1, return from try, modify result in finally.");
+            assertThatCode(endPoint::endPointFailsHandledByFramework)
+                    .isInstanceOf(BusinessDomainException.class)
+                    .hasMessageFindingMatch("Negative.*invalid");
+            assertThat(endPoint.endPointFailsTranslatedByAspect()).isEqualTo(endPoint.throwEarlyCatchLate());
+            assertThat(AopUtils.isAopProxy(endPoint)).as("unless woven at build time").isEqualTo(!AspectsConfiguration.isWoven(LoggingInOuts.class));
+            assertThat(AopUtils.isAopProxy(context.getBean(ExceptionStore.class))).isFalse();
+            FastStartupApplication.logStartupTimings(context);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.permasoft.katas.javaplays.exceptions;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+@DisplayName("Expected failures reported as values instead of exceptions")
+class OutcomesTest {
+    private final ExceptionStore store = new ExceptionStore(new ExceptionDao(){});
+    private final ExceptionUseCases useCases = new ExceptionUseCases(store);
+
+    @Test
+    @DisplayName("success holds an unboxed int and small values are shared")
+    void success() {
+        IntOutcome outcome = store.conditionalOutcome(1);
+        assertThat(outcome.isSuccess()).isTrue();
+        assertThat(outcome.getAsInt()).isEqualTo(1);
+        assertThat(outcome).isSameAs(store.conditionalOutcome(1));
+        assertThat(store.conditionalOutcome(1_000_000).getAsInt()).isEqualTo(1_000_000);
+    }
+
+    @Test
+    @DisplayName("failure holds a reason code and renders the library message on demand")
+    void failure() {
+        IntOutcome outcome = store.conditionalOutcome(-1);
+        assertThat(outcome.isFailure()).isTrue();
+        assertThat(outcome.orElse(0)).isZero();
+        IntOutcome.Failure failure = (IntOutcome.Failure) outcome;
+        assertThat(failure.reason()).isEqualTo(FailureReason.NEGATIVE_INPUT);
+        assertThat(failure.input()).isEqualTo(-1);
+        assertThat(failure.message()).isEqualTo("Negative input[-1] is invalid");
+        assertThatCode(outcome::getAsInt).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    @DisplayName("throwing methods are adapters over outcomes")
+    void throwingAdapters() {
+        assertThatCode(() -> store.conditionalThrow(-1))
+                .isInstanceOf(YourUseOfMyLibraryIsInvalid.class)
+                .hasMessage(((IntOutcome.Failure) store.conditionalOutcome(-1)).message());
+        assertThatCode(() -> assertThat(store.conditionalThrow(2)).isEqualTo(2))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("use case lets the caller decide to recover or to fail")
+    void useCaseOutcome() {
+        assertThat(useCases.outcomeUseCaseReportsFailure(1).getAsInt()).isEqualTo(1);
+        assertThat(useCases.outcomeUseCaseReportsFailure(-1).orElse(42)).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("bulk calls keep successes and collect failures by index")
+    void bulkOutcome() {
+        BulkOutcome outcome = useCases.warnUseCaseWorksDespiteExceptions(new int[]{1, -2, 3, -4});
+        assertThat(outcome.size()).isEqualTo(4);
+        assertThat(outcome.successes()).containsExactly(1, 3);
+        assertThat(outcome.failureCount()).isEqualTo(2);
+        assertThat(outcome.failureIndex(1)).isEqualTo(3);
+        assertThat(outcome.failureReason(1)).isEqualTo(FailureReason.NEGATIVE_INPUT);
+        assertThat(outcome.failure(1).message()).isEqualTo("Negative input[-4] is invalid");
+        assertThat(useCases.errorUseCaseFailsDueToExceptions(IntStream.rangeClosed(1, 1000)).successCount()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("failing bulk call throws once with failures as suppressed exceptions")
+    void bulkFailure() {
+        BusinessDomainException failure = catchThrowableOfType(
+                () -> useCases.errorUseCaseFailsDueToExceptions(IntStream.rangeClosed(-100, 100)), BusinessDomainException.class);
+        assertThat(failure).hasMessage("fail calling external library for 100 of 201 ids, first due to : Negative input[-100] is invalid");
+        assertThat(failure.getSuppressed()).hasSize(16).allMatch(YourUseOfMyLibraryIsInvalid.class::isInstance);
+    }
+}
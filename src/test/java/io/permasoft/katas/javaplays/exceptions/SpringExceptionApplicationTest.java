@@ -1,7 +1,9 @@
 package io.permasoft.katas.javaplays.exceptions;
 
 import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
 import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.resources.ResourcePool;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -18,6 +20,10 @@ public class SpringExceptionApplicationTest {
 //    MockMvc mvc;
     @Autowired
     ExceptionEndPoint endPoint;
+    @Autowired
+    ExceptionUseCases useCases;
+    @Autowired
+    ResourcePool<AutoCloseable> ressources;
 
     @Test
     void nominal_without_failure() {
@@ -36,4 +42,10 @@ public class SpringExceptionApplicationTest {
                 .hasMessageFindingMatch("Negative.*invalid");
         assertThat(result.get()).isNull();
     }
+
+    @Test
+    void pool_from_configuration() {
+        assertThat(useCases.ressources()).isSameAs(ressources);
+        assertThat(ressources.statistics().maxSize()).isEqualTo(64);
+    }
 }
@@ -0,0 +1,71 @@
+package io.permasoft.katas.javaplays.exceptions;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DisplayName("Stackless exceptions for failure storms")
+class StacklessExceptionsTest {
+    private final ExceptionStore store = new ExceptionStore(new ExceptionDao(){});
+    private final ExceptionUseCases useCases = new ExceptionUseCases(store);
+
+    @AfterEach
+    void restoreFullStackTraces() {
+        BusinessDomainException.STACK_TRACES.configure(false, 0);
+        YourUseOfMyLibraryIsInvalid.STACK_TRACES.configure(false, 0);
+    }
+
+    @Test
+    @DisplayName("full stack traces are captured by default")
+    void fullStackTracesByDefault() {
+        Throwable thrown = catchThrowable(store::throwChecked);
+        assertThat(thrown.getStackTrace()).isNotEmpty();
+        assertThat(thrown).isNotSameAs(catchThrowable(store::throwChecked));
+    }
+
+    @Test
+    @DisplayName("stackless mode keeps full traces for the first occurrences then shares immutable instances")
+    void stacklessAfterFirstOccurrences() {
+        YourUseOfMyLibraryIsInvalid.STACK_TRACES.configure(true, 2);
+
+        assertThat(catchThrowable(store::throwChecked).getStackTrace()).isNotEmpty();
+        assertThat(catchThrowable(store::throwChecked).getStackTrace()).isNotEmpty();
+        Throwable shared = catchThrowable(store::throwChecked);
+        assertThat(shared.getStackTrace()).isEmpty();
+        assertThat(shared).hasMessage("Negative input[-1] is invalid");
+        assertThat(catchThrowable(store::throwChecked)).isSameAs(shared);
+
+        shared.addSuppressed(new IllegalStateException("ignored"));
+        assertThat(shared.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("stackless mode is switched per exception type")
+    void stacklessPerExceptionType() {
+        BusinessDomainException.STACK_TRACES.configure(true, 0);
+
+        Throwable thrown = catchThrowable(() -> useCases.errorUseCaseFailsDueToException(-1));
+        assertThat(thrown)
+                .isInstanceOf(BusinessDomainException.class)
+                .hasMessageContaining("fail calling external library");
+        assertThat(thrown.getStackTrace()).isEmpty();
+        assertThat(thrown.getCause().getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("preallocated business exceptions are immutable")
+    void preallocatedIsImmutable() {
+        BusinessDomainException preallocated = BusinessDomainException.preallocated("circuit open");
+        preallocated.fillInStackTrace();
+        assertThat(preallocated.getStackTrace()).isEmpty();
+        assertThat(preallocated.getCause()).isNull();
+    }
+}
@@ -0,0 +1,106 @@
+package io.permasoft.katas.javaplays.exceptions.api;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.configuration.AspectsConfiguration;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Endpoints exposed over HTTP")
+class ExceptionHttpServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ExceptionHttpServer server;
+
+    @BeforeEach
+    void start() throws Exception {
+        ExceptionEndPoint target = new ExceptionEndPoint(new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        })));
+        ExceptionEndPoint endPoint = AspectsConfiguration.advised(target, ExceptionTranslator.standard(), new LatencyMetrics(),
+                InlineLogSink.INSTANCE, FailureObserver.NONE);
+        server = new ExceptionHttpServer(endPoint, ExceptionTranslator.standard(),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Executors.newFixedThreadPool(2));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("successes answer their result as text")
+    void success() throws Exception {
+        HttpResponse<String> response = get("/endpoint/succeeds");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("1, return from try, modify result in finally.");
+    }
+
+    @Test
+    @DisplayName("failures answer a problem document with the translated status")
+    void failure() throws Exception {
+        HttpResponse<String> response = get("/endpoint/fails");
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/problem+json");
+        assertThat(response.body()).isEqualTo("{\"type\":\"about:blank\",\"title\":\"Internal Server Error\",\"status\":500,"
+                + "\"detail\":\"fail calling external library due to : Negative input[-1] is invalid\"}");
+    }
+
+    @Test
+    @DisplayName("failures answered by the translating aspect keep their status and problem document")
+    void translatedFailure() throws Exception {
+        assertProblem(get("/endpoint/translated"));
+    }
+
+    @Test
+    @DisplayName("failures caught late by the endpoint keep their status and problem document")
+    void throwEarlyCatchLateFailure() throws Exception {
+        assertProblem(get("/endpoint/throw-early-catch-late"));
+    }
+
+    @Test
+    @DisplayName("other methods than GET are not allowed")
+    void methodNotAllowed() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/endpoint/succeeds")).POST(HttpRequest.BodyPublishers.noBody()));
+
+        assertThat(response.statusCode()).isEqualTo(405);
+        assertThat(response.headers().firstValue("Allow")).hasValue("GET");
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/problem+json");
+    }
+
+    private static void assertProblem(HttpResponse<String> response) {
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/problem+json");
+        assertThat(response.body()).isEqualTo("{\"type\":\"about:blank\",\"title\":\"Internal Server Error\",\"status\":500,"
+                + "\"detail\":\"fail calling external library due to : Negative input[-1] is invalid\"}");
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.port() + path);
+    }
+}
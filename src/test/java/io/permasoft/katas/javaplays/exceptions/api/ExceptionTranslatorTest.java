@@ -0,0 +1,67 @@
+package io.permasoft.katas.javaplays.exceptions.api;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.configuration.AspectsConfiguration;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import io.permasoft.katas.javaplays.exceptions.support.MessageTemplate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Exceptions translated to error responses")
+class ExceptionTranslatorTest {
+    private final ExceptionTranslator translator = ExceptionTranslator.standard();
+
+    @Test
+    @DisplayName("handler is resolved along the class hierarchy")
+    void hierarchy() {
+        assertThat(translator.translate(new BusinessDomainException("boom")).body()).isEqualTo("Error 500 due to : boom");
+        assertThat(translator.translate(YourUseOfMyLibraryIsInvalid.negativeInput(-1)).status()).isEqualTo(400);
+        assertThat(translator.translate(new NumberFormatException("not a number")).status()).as("subclass of IllegalArgumentException").isEqualTo(400);
+        assertThat(translator.translate(new IllegalStateException("disk")).body()).as("no handler").isEqualTo("Error 500 due to : disk");
+    }
+
+    @Test
+    @DisplayName("fixed responses are shared and rendered once")
+    void fixed() {
+        ErrorResponse first = translator.translate(new CancellationException("internal detail"));
+        ErrorResponse second = translator.translate(new CancellationException("other detail"));
+
+        assertThat(first).isSameAs(second);
+        assertThat(first.body()).isEqualTo("Error 503 due to : request cancelled, retry later");
+    }
+
+    @Test
+    @DisplayName("templated responses are shared per rendered message")
+    void templated() {
+        MessageTemplate template = MessageTemplate.of("fail due to : {cause}");
+        ErrorResponse first = translator.translate(new BusinessDomainException(template, YourUseOfMyLibraryIsInvalid.negativeInput(-1)));
+        ErrorResponse second = translator.translate(new BusinessDomainException(template, YourUseOfMyLibraryIsInvalid.negativeInput(-1)));
+        ErrorResponse other = translator.translate(new BusinessDomainException(template, YourUseOfMyLibraryIsInvalid.negativeInput(-2)));
+
+        assertThat(first).isSameAs(second);
+        assertThat(other).isNotSameAs(first);
+        assertThat(other.body()).isEqualTo("Error 500 due to : fail due to : Negative input[-2] is invalid");
+        assertThat(translator.translate(new BusinessDomainException("plain"))).as("plain messages are not cached")
+                .isNotSameAs(translator.translate(new BusinessDomainException("plain")));
+    }
+
+    @Test
+    @DisplayName("aspect answers endpoint failures as throwEarlyCatchLate does")
+    void aspect() {
+        ExceptionEndPoint endPoint = new ExceptionEndPoint(new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        })));
+        ExceptionEndPoint proxy = AspectsConfiguration.advised(endPoint, translator, new LatencyMetrics(), InlineLogSink.INSTANCE, FailureObserver.NONE);
+
+        assertThat(proxy.endPointFailsTranslatedByAspect()).isEqualTo(endPoint.throwEarlyCatchLate());
+    }
+}
@@ -0,0 +1,95 @@
+package io.permasoft.katas.javaplays.exceptions.execution;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.BulkOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DisplayName("Bulk calls fanned out across threads")
+class BulkExecutorsTest {
+    private static final int[] IDS = IntStream.range(-500, 100_000).toArray();
+
+    private final ExceptionDao dao = new ExceptionDao() {
+    };
+    private final List<BulkExecutor> executors = List.of(
+            SequentialBulkExecutor.INSTANCE,
+            new ForkJoinBulkExecutor(4, 256),
+            ThreadPerTaskBulkExecutor.virtualThreads(4, 256));
+
+    @AfterEach
+    void closeExecutors() {
+        executors.forEach(BulkExecutor::close);
+    }
+
+    @Test
+    @DisplayName("outcomes keep input order whatever the executor")
+    void inputOrder() {
+        for (BulkExecutor executor : executors) {
+            BulkOutcome outcome = executor.execute(IDS, dao::apiWhenLibReturnsOutcomes);
+
+            assertThat(outcome.size()).as(executor.getClass().getSimpleName()).isEqualTo(IDS.length);
+            assertThat(outcome.successes()).isEqualTo(IntStream.range(0, 100_000).toArray());
+            assertThat(outcome.failureCount()).isEqualTo(500);
+            assertThat(outcome.failureIndex(499)).isEqualTo(499);
+            assertThat(outcome.failureInput(0)).isEqualTo(-500);
+        }
+    }
+
+    @Test
+    @DisplayName("a call throwing a runtime exception only fails its own id, the exception kept in the failure table")
+    void runtimeExceptionFailsItsSlot() {
+        for (BulkExecutor executor : executors) {
+            AtomicInteger calls = new AtomicInteger();
+            IllegalStateException unavailable = new IllegalStateException("library unavailable");
+            IntFunction<IntOutcome> call = id -> {
+                calls.incrementAndGet();
+                if (id % 1000 == 7) {
+                    throw unavailable;
+                }
+                return dao.apiWhenLibReturnsOutcomes(id);
+            };
+
+            BulkOutcome outcome = executor.execute(IDS, call);
+
+            assertThat(calls.get()).as(executor.getClass().getSimpleName()).isEqualTo(IDS.length);
+            assertThat(outcome.size()).isEqualTo(IDS.length);
+            assertThat(outcome.failureCount()).isEqualTo(600);
+            assertThat(outcome.failureReason(0)).isEqualTo(FailureReason.NEGATIVE_INPUT);
+            assertThat(outcome.failureThrown(0)).isNull();
+            assertThat(outcome.failureReason(500)).isEqualTo(FailureReason.CALL_FAILED);
+            assertThat(outcome.failureInput(500)).isEqualTo(7);
+            assertThat(outcome.failureThrown(500)).isSameAs(unavailable);
+        }
+    }
+
+    @Test
+    @DisplayName("a fatal error cancels remaining calls and is rethrown to the caller")
+    void fatalErrorCancels() {
+        for (BulkExecutor executor : executors) {
+            AtomicInteger calls = new AtomicInteger();
+            IntFunction<IntOutcome> call = id -> {
+                calls.incrementAndGet();
+                if (id == -500) {
+                    dao.apiWhenApplicationCantKeepRunning(id);
+                }
+                return dao.apiWhenLibReturnsOutcomes(id);
+            };
+
+            Throwable thrown = catchThrowable(() -> executor.execute(IDS, call));
+
+            assertThat(thrown).as(executor.getClass().getSimpleName()).isInstanceOf(OutOfMemoryError.class);
+            assertThat(calls.get()).isLessThan(IDS.length);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Async log pipeline hands failure events over to a background thread")
+class AsyncLogSinkTest {
+    private final ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(AsyncLogSinkTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final ch.qos.logback.classic.Logger sinkLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(AsyncLogSink.class);
+
+    @BeforeEach
+    void captureEvents() {
+        appender.start();
+        logger.addAppender(appender);
+        sinkLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void releaseAppender() {
+        logger.detachAppender(appender);
+        sinkLogger.detachAppender(appender);
+    }
+
+    @Test
+    @DisplayName("events are formatted on the consumer thread, in order, with the requesting thread in the MDC")
+    void eventsInOrder() {
+        AsyncLogSink sink = new AsyncLogSink(16, AsyncLogSink.Overflow.BLOCK, 4);
+        IllegalStateException failure = new IllegalStateException("boom");
+        for (int i = 0; i < 100; i++) {
+            sink.log(logger, Level.ERROR, "event {}", i, failure);
+        }
+        sink.close();
+
+        assertThat(appender.list).hasSize(100);
+        assertThat(appender.list.get(42).getFormattedMessage()).isEqualTo("event 42");
+        assertThat(appender.list.get(42).getThrowableProxy().getMessage()).isEqualTo("boom");
+        assertThat(appender.list.get(42).getThreadName()).isEqualTo("async-log-sink");
+        assertThat(appender.list.get(42).getMDCPropertyMap()).containsEntry(AsyncLogSink.REQUEST_THREAD, Thread.currentThread().getName());
+        assertThat(sink.droppedEvents()).isZero();
+        assertThat(sink.processedEvents()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("disabled levels are not even queued")
+    void disabledLevels() {
+        AsyncLogSink sink = new AsyncLogSink(16, AsyncLogSink.Overflow.DROP, 4);
+        sink.log(logger, Level.TRACE, "not enabled");
+        sink.close();
+
+        assertThat(sink.processedEvents()).isZero();
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a full buffer drops events and summarizes how many were lost")
+    void overflowSummarized() throws InterruptedException {
+        CountDownLatch appenderBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ch.qos.logback.classic.Logger blockingLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("blocking");
+        ListAppender<ILoggingEvent> blockingAppender = new ListAppender<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                appenderBlocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        blockingAppender.start();
+        blockingLogger.addAppender(blockingAppender);
+        blockingLogger.setAdditive(false);
+        try {
+            AsyncLogSink sink = new AsyncLogSink(4, AsyncLogSink.Overflow.SUMMARIZE, 4);
+            sink.log(blockingLogger, Level.ERROR, "blocks the consumer");
+            assertThat(appenderBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 10; i++) {
+                sink.log(logger, Level.ERROR, "event {}", i);
+            }
+            release.countDown();
+            sink.close();
+
+            assertThat(sink.droppedEvents()).isEqualTo(6);
+            assertThat(sink.summarizedEvents()).isEqualTo(6);
+            assertThat(appender.list)
+                    .extracting(ILoggingEvent::getFormattedMessage)
+                    .contains("event 0", "event 3", "async log buffer full, 6 log events dropped")
+                    .doesNotContain("event 4");
+        } finally {
+            blockingLogger.detachAppender(blockingAppender);
+            blockingLogger.setAdditive(true);
+        }
+    }
+
+    @Test
+    @DisplayName("events logged while closing are either drained or logged inline, none is lost")
+    void closeRace() throws Exception {
+        int producers = 4;
+        int events = 5_000;
+        AsyncLogSink sink = new AsyncLogSink(64, AsyncLogSink.Overflow.BLOCK, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            CountDownLatch started = new CountDownLatch(producers);
+            Future<?>[] done = new Future<?>[producers];
+            for (int p = 0; p < producers; p++) {
+                done[p] = executor.submit(() -> {
+                    started.countDown();
+                    for (int i = 0; i < events; i++) {
+                        sink.log(logger, Level.ERROR, "event {}", i);
+                    }
+                    return null;
+                });
+            }
+            started.await();
+            for (long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5); sink.processedEvents() == 0 && System.nanoTime() < deadline; ) {
+                Thread.yield();
+            }
+            sink.close();
+            for (Future<?> producer : done) {
+                producer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(appender.list).hasSize(producers * events);
+        assertThat(sink.processedEvents()).isLessThanOrEqualTo(producers * events);
+        assertThat(sink.droppedEvents()).isZero();
+    }
+
+    @Test
+    @DisplayName("events whose logging throws are counted apart from the dropped ones, the consumer goes on")
+    void failingAppender() {
+        Logger failing = (Logger) Proxy.newProxyInstance(Logger.class.getClassLoader(), new Class<?>[]{Logger.class}, (proxy, method, args) -> {
+            if (method.getName().startsWith("is")) {
+                return true;
+            }
+            throw new IllegalStateException("appender down");
+        });
+        AsyncLogSink sink = new AsyncLogSink(16, AsyncLogSink.Overflow.DROP, 4);
+        for (int i = 0; i < 3; i++) {
+            sink.log(failing, Level.ERROR, "lost {}", i);
+        }
+        sink.log(logger, Level.ERROR, "written");
+        sink.close();
+
+        assertThat(sink.failedEvents()).isEqualTo(3);
+        assertThat(sink.droppedEvents()).isZero();
+        assertThat(sink.processedEvents()).isEqualTo(4);
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("written");
+    }
+}
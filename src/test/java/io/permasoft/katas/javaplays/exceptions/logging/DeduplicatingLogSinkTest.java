@@ -0,0 +1,114 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionFingerprint;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DisplayName("Failures are logged once per fingerprint and window, repeats are summarized")
+class DeduplicatingLogSinkTest {
+    private static final Logger log = LoggerFactory.getLogger(DeduplicatingLogSinkTest.class);
+    private final ExceptionUseCases useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao(){}));
+    private final List<String> logged = new ArrayList<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final LogSink recording = (logger, level, format, arguments) -> logged.add(format + " " + Arrays.toString(arguments));
+    private final DeduplicatingLogSink sink = new DeduplicatingLogSink(recording, 1000, 100, 100, clock::get);
+
+    @Test
+    @DisplayName("the same failure thrown from the same place has the same fingerprint whatever its message")
+    void fingerprint() {
+        Throwable first = failure();
+        Throwable second = failure();
+        assertThat(first.getMessage()).isEqualTo(second.getMessage());
+        assertThat(ExceptionFingerprint.of(first)).isEqualTo(ExceptionFingerprint.of(second));
+        assertThat(ExceptionFingerprint.of(first)).isNotEqualTo(ExceptionFingerprint.of(first.getCause()));
+        assertThat(ExceptionFingerprint.of(first)).isNotEqualTo(ExceptionFingerprint.of(new BusinessDomainException(first.getMessage(), first.getCause())));
+    }
+
+    @Test
+    @DisplayName("full trace first, then one summary per period, then full trace again in the next window")
+    void deduplication() {
+        for (int i = 0; i < 10; i++) {
+            sink.log(log, Level.ERROR, "failed due to :", failure());
+        }
+        assertThat(logged).hasSize(1);
+        assertThat(logged.get(0)).startsWith("failed due to :");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        sink.log(log, Level.ERROR, "failed due to :", failure());
+        assertThat(logged).hasSize(2);
+        assertThat(logged.get(1)).contains("seen {} more times", BusinessDomainException.class.getName(), ", 10]");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        sink.log(log, Level.ERROR, "failed due to :", failure());
+        assertThat(logged).hasSize(3);
+        assertThat(logged.get(2)).startsWith("failed due to :");
+    }
+
+    @Test
+    @DisplayName("distinct failures and events without throwable are not deduplicated")
+    void passThrough() {
+        sink.log(log, Level.ERROR, "failed due to :", failure());
+        sink.log(log, Level.ERROR, "failed due to :", failure().getCause());
+        sink.log(log, Level.ERROR, "no trace");
+        sink.log(log, Level.ERROR, "no trace");
+        assertThat(logged).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("repeats of a failure that stopped are summarized by the tick once the period is over, and on close")
+    void pendingSummaries() {
+        sink.log(log, Level.ERROR, "failed due to :", failure());
+        sink.log(log, Level.ERROR, "failed due to :", failure());
+        sink.log(log, Level.ERROR, "failed due to :", failure());
+        sink.tick();
+        assertThat(logged).hasSize(1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        sink.tick();
+        assertThat(logged).hasSize(2);
+        assertThat(logged.get(1)).contains("seen {} more times", ", 2]");
+
+        sink.log(log, Level.ERROR, "failed due to :", failure());
+        sink.close();
+        assertThat(logged).hasSize(3);
+        assertThat(logged.get(2)).contains("seen {} more times", ", 1]");
+    }
+
+    @Test
+    @DisplayName("a full table evicts a fingerprint whose window is over, live ones get a second chance")
+    void eviction() {
+        DeduplicatingLogSink small = new DeduplicatingLogSink(recording, 1000, 100, 2, clock::get);
+        Throwable third = new IllegalStateException("third");
+        small.log(log, Level.ERROR, "failed due to :", failure());
+        small.log(log, Level.ERROR, "failed due to :", failure().getCause());
+        small.log(log, Level.ERROR, "failed due to :", third);
+        small.log(log, Level.ERROR, "failed due to :", third);
+        assertThat(logged).hasSize(4); // both windows live : the third failure is not tracked
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        small.log(log, Level.ERROR, "failed due to :", failure().getCause());
+        small.log(log, Level.ERROR, "failed due to :", third);
+        small.log(log, Level.ERROR, "failed due to :", third);
+        assertThat(logged).hasSize(6); // the first one, not seen since the hand passed, made room for the third
+    }
+
+    private Throwable failure() {
+        return catchThrowable(() -> useCases.errorUseCaseFailsDueToException(-1));
+    }
+}
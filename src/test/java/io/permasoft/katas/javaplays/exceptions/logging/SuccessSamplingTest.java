@@ -0,0 +1,99 @@
+package io.permasoft.katas.javaplays.exceptions.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Success lines are sampled per method, tighter under load, never when slow")
+class SuccessSamplingTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final SuccessSampling sampling = new SuccessSampling(clock::get);
+
+    @Test
+    @DisplayName("every call is logged by default, a method rate logs one call in N and carries N")
+    void rates() {
+        SuccessSampling.Sampler sampler = sampling.sampler("ExceptionEndPoint.endPointSucceedsHandledByFramework");
+        assertThat(sampling.sampler("ExceptionEndPoint.endPointSucceedsHandledByFramework")).isSameAs(sampler);
+        assertThat(samples(sampler, 10)).isEqualTo(10);
+
+        sampling.setRate("ExceptionEndPoint.endPointSucceedsHandledByFramework", 5);
+        assertThat(sampler.rate()).isEqualTo(5);
+        assertThat(samples(sampler, 100)).isEqualTo(100);
+        assertThat(sampling.sampler("ExceptionUseCases.warnUseCaseWorksDespiteException").rate()).isEqualTo(1);
+
+        sampling.resetRate("ExceptionEndPoint.endPointSucceedsHandledByFramework");
+        sampling.setDefaultRate(2);
+        assertThat(sampling.getEffectiveRates()).containsEntry("ExceptionEndPoint.endPointSucceedsHandledByFramework", 2)
+                .containsEntry("ExceptionUseCases.warnUseCaseWorksDespiteException", 2);
+    }
+
+    @Test
+    @DisplayName("calls slower than the threshold are always logged, with a rate of 1")
+    void slow_calls() {
+        sampling.setDefaultRate(1000);
+        sampling.setSlowThresholdMillis(100);
+        SuccessSampling.Sampler sampler = sampling.sampler("method");
+        assertThat(sampler.sample(TimeUnit.MILLISECONDS.toNanos(150))).isEqualTo(1);
+        assertThat(sampler.sample(TimeUnit.MILLISECONDS.toNanos(50))).isZero();
+        assertThat(sampler.isSlow(TimeUnit.MILLISECONDS.toNanos(150))).as("checked again once the call is over").isTrue();
+        assertThat(sampler.isSlow(TimeUnit.MILLISECONDS.toNanos(50))).isFalse();
+
+        sampling.setSlowThresholdMillis(0);
+        assertThat(sampler.isSlow(TimeUnit.SECONDS.toNanos(10))).isFalse();
+    }
+
+    @Test
+    @DisplayName("a method called faster than the line budget is sampled down to it, back to its rate once calm")
+    void adapts_to_load() {
+        sampling.setMaxLinesPerSecond(100);
+        SuccessSampling.Sampler sampler = sampling.sampler("method");
+        int logged = 0;
+        for (int second = 0; second < 3; second++) {
+            logged = 0;
+            for (int i = 0; i < 10_000; i++) {
+                clock.addAndGet(SuccessSampling.WINDOW_NANOS / 10_000);
+                logged += sampler.sample(0) > 0 ? 1 : 0;
+            }
+        }
+        assertThat(sampler.rate()).isEqualTo(100);
+        assertThat(logged).isBetween(90, 110);
+
+        clock.addAndGet(10 * SuccessSampling.WINDOW_NANOS);
+        sampler.sample(0);
+        assertThat(sampler.rate()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rates are changed at runtime over JMX")
+    void jmx() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = sampling.registerMBean();
+        try {
+            server.invoke(name, "setRate", new Object[]{"method", 7}, new String[]{String.class.getName(), int.class.getName()});
+            assertThat(sampling.sampler("method").rate()).isEqualTo(7);
+            assertThat(server.getAttribute(name, "DefaultRate")).isEqualTo(1);
+        } finally {
+            sampling.close();
+        }
+        assertThat(server.isRegistered(name)).isFalse();
+    }
+
+    /**
+     * Calls a number of times and adds up the rates of the logged ones, which shall count the calls back.
+     */
+    private static long samples(SuccessSampling.Sampler sampler, int calls) {
+        long total = 0;
+        for (int i = 0; i < calls; i++) {
+            total += sampler.sample(0);
+        }
+        return total;
+    }
+}
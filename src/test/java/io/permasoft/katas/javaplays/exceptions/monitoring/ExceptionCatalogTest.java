@@ -0,0 +1,97 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DisplayName("Exception catalog aggregates failures by fingerprint")
+class ExceptionCatalogTest {
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    @DisplayName("use cases failures are counted per call site with their root cause")
+    void aggregates_use_case_failures() {
+        ExceptionCatalog catalog = new ExceptionCatalog(100, now::get);
+        ExceptionUseCases useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        }), InlineLogSink.INSTANCE, catalog, SequentialBulkExecutor.INSTANCE);
+
+        for (int i = 0; i < 3; i++) {
+            useCases.warnUseCaseWorksDespiteException(-1);
+        }
+        catchThrowable(() -> useCases.failOnMissingRessources());
+
+        List<ExceptionStatistics> invalidUses = catalog.byRootCause(YourUseOfMyLibraryIsInvalid.class.getName());
+        assertThat(invalidUses).extracting(ExceptionStatistics::count).containsExactly(3L, 1L);
+        assertThat(invalidUses.get(0).sampleTrace()).contains("warnUseCaseWorksDespiteException");
+        assertThat(invalidUses.get(1).sampleTrace()).contains("throwChecked");
+    }
+
+    @Test
+    @DisplayName("hottest failures come first and fade once they stop")
+    void ranks_by_recent_rate() {
+        ExceptionCatalog catalog = new ExceptionCatalog(100, now::get);
+        BusinessDomainException rare = new BusinessDomainException("rare");
+        IllegalStateException frequent = new IllegalStateException("frequent");
+        catalog.failed(rare);
+        for (int i = 0; i < 50; i++) {
+            catalog.failed(frequent);
+        }
+
+        assertThat(catalog.topByRate(2)).extracting(ExceptionStatistics::type)
+                .containsExactly(IllegalStateException.class.getName(), BusinessDomainException.class.getName());
+
+        now.addAndGet(60_000);
+        catalog.failed(rare);
+        assertThat(catalog.topByRate(1)).extracting(ExceptionStatistics::type)
+                .containsExactly(BusinessDomainException.class.getName());
+    }
+
+    @Test
+    @DisplayName("least recently seen failures are evicted beyond capacity")
+    void bounded() {
+        ExceptionCatalog catalog = new ExceptionCatalog(2, now::get);
+        Throwable first = new IllegalStateException();
+        catalog.failed(first);
+        now.incrementAndGet();
+        catalog.failed(new IllegalArgumentException());
+        now.incrementAndGet();
+        catalog.failed(first);
+        now.incrementAndGet();
+        catalog.failed(new UnsupportedOperationException());
+
+        assertThat(catalog.size()).isEqualTo(2);
+        assertThat(catalog.evictions()).isEqualTo(1);
+        assertThat(catalog.topByRate(10)).extracting(ExceptionStatistics::type)
+                .doesNotContain(IllegalArgumentException.class.getName());
+    }
+
+    @Test
+    @DisplayName("new failures beyond capacity evict the least recently seen tenth at once")
+    void batchEviction() {
+        ExceptionCatalog catalog = new ExceptionCatalog(100, now::get);
+        Throwable hot = new IllegalStateException();
+        for (int line = 0; line < 1000; line++) {
+            now.incrementAndGet();
+            catalog.failed(hot);
+            IllegalArgumentException failure = new IllegalArgumentException();
+            failure.setStackTrace(new StackTraceElement[]{new StackTraceElement("Caller", "call", "Caller.java", line)});
+            catalog.failed(failure);
+        }
+
+        assertThat(catalog.size()).isBetween(90, 100);
+        assertThat(catalog.evictions()).isEqualTo(1001L - catalog.size());
+        assertThat(catalog.topByRate(100)).extracting(ExceptionStatistics::type).contains(IllegalStateException.class.getName());
+    }
+}
@@ -0,0 +1,124 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Exception flight recorder keeps the last failures in a mapped file")
+class ExceptionFlightRecorderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("use cases failures are decoded with their message template, root cause and frames")
+    void records_use_case_failures() throws IOException {
+        Path file = directory.resolve("flight.rec");
+        try (ExceptionFlightRecorder recorder = ExceptionFlightRecorder.open(file, 16, 64 * 1024)) {
+            ExceptionUseCases useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+            }), InlineLogSink.INSTANCE, recorder, SequentialBulkExecutor.INSTANCE);
+            useCases.warnUseCaseWorksDespiteException(-1);
+            useCases.warnUseCaseWorksDespiteException(-2);
+            recorder.failed(new BusinessDomainException("wrapped", new IllegalStateException("cause")));
+        }
+
+        List<FlightRecord> records = FlightRecordingReader.read(file);
+        assertThat(records).extracting(FlightRecord::sequence).containsExactly(0L, 1L, 2L);
+        FlightRecord invalidUse = records.get(0);
+        assertThat(invalidUse.type()).isEqualTo(YourUseOfMyLibraryIsInvalid.class.getName());
+        assertThat(invalidUse.messageTemplate()).as("template of the exception, not derived from its message").isEqualTo("Negative input[{}] is invalid");
+        assertThat(invalidUse.threadName()).isEqualTo(Thread.currentThread().getName());
+        assertThat(invalidUse.frames()).isNotEmpty().anyMatch(frame -> frame.contains("warnUseCaseWorksDespiteException"));
+        assertThat(records.get(1).messageTemplate()).isEqualTo(invalidUse.messageTemplate());
+        FlightRecord wrapped = records.get(2);
+        assertThat(wrapped.rootCauseType()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(wrapped.causeDepth()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("the ring keeps the most recent failures and symbols are interned once")
+    void keeps_most_recent() throws IOException {
+        Path file = directory.resolve("flight.rec");
+        try (ExceptionFlightRecorder recorder = ExceptionFlightRecorder.open(file, 4, 64 * 1024)) {
+            IllegalStateException[] failures = new IllegalStateException[11];
+            for (int i = 0; i < failures.length; i++) {
+                failures[i] = new IllegalStateException("input " + i);
+            }
+            for (int i = 0; i < 10; i++) {
+                recorder.failed(failures[i]);
+            }
+            int symbols = recorder.symbols();
+            recorder.failed(failures[10]);
+            assertThat(recorder.symbols()).isEqualTo(symbols);
+            assertThat(recorder.recorded()).isEqualTo(11);
+        }
+
+        assertThat(FlightRecordingReader.read(file)).extracting(FlightRecord::sequence).containsExactly(7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    @DisplayName("reopening the same file resumes the recording, a second recorder on it is refused")
+    void resumes_recording() throws IOException {
+        Path file = directory.resolve("flight.rec");
+        IllegalStateException failure = new IllegalStateException("before restart");
+        try (ExceptionFlightRecorder recorder = ExceptionFlightRecorder.open(file, 8, 64 * 1024)) {
+            recorder.failed(failure);
+            assertThatThrownBy(() -> ExceptionFlightRecorder.open(file, 8, 64 * 1024)).isInstanceOf(IOException.class);
+        }
+        try (ExceptionFlightRecorder recorder = ExceptionFlightRecorder.open(file, 8, 64 * 1024)) {
+            int symbols = recorder.symbols();
+            recorder.failed(failure);
+            assertThat(recorder.symbols()).isEqualTo(symbols);
+        }
+
+        assertThat(FlightRecordingReader.read(file)).extracting(FlightRecord::messageTemplate)
+                .containsExactly("before restart", "before restart");
+    }
+
+    @Test
+    @DisplayName("failures recorded just before the process dies can still be read")
+    void survives_crash() throws Exception {
+        Path file = directory.resolve("crashed.rec");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process crashing = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Crashing.class.getName(), file.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        assertThat(crashing.waitFor(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(crashing.exitValue()).isEqualTo(137);
+
+        List<FlightRecord> records = FlightRecordingReader.read(file);
+        assertThat(records).hasSize(Crashing.FAILURES)
+                .extracting(FlightRecord::type).containsOnly(OutOfMemoryError.class.getName());
+    }
+
+    /**
+     * Records a burst of failures then halts, neither closing the recorder nor running shutdown hooks.
+     */
+    static final class Crashing {
+        static final int FAILURES = 5;
+
+        public static void main(String[] args) throws IOException {
+            ExceptionFlightRecorder recorder = ExceptionFlightRecorder.open(Paths.get(args[0]), 16, 64 * 1024);
+            for (int i = 0; i < FAILURES; i++) {
+                recorder.failed(new OutOfMemoryError("Java heap space"));
+            }
+            Runtime.getRuntime().halt(137);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Latency histograms fed by the @Logging aspect")
+class LatencyMetricsTest {
+    private final LatencyMetrics metrics = new LatencyMetrics();
+
+    @Test
+    @DisplayName("percentiles are reported within the histogram precision")
+    void percentiles() {
+        RollingLatency latency = metrics.latency("ExceptionEndPoint.endPointSucceedsHandledByFramework");
+        for (long micros = 1; micros <= 1000; micros++) {
+            latency.record(TimeUnit.MICROSECONDS.toNanos(micros), null);
+        }
+
+        LatencySnapshot.Distribution successes = latency.snapshot().successes();
+        assertThat(successes.count()).isEqualTo(1000);
+        assertThat((double) successes.p50()).isCloseTo(500_000, within(500_000 * 0.07));
+        assertThat((double) successes.p99()).isCloseTo(990_000, within(990_000 * 0.07));
+        assertThat((double) successes.max()).isCloseTo(1_000_000, within(1_000_000 * 0.07));
+    }
+
+    @Test
+    @DisplayName("failures are tracked apart from successes and counted by exception type")
+    void failures() {
+        RollingLatency latency = metrics.latency("ExceptionEndPoint.endPointFailsHandledByFramework");
+        latency.record(1_000, null);
+        latency.record(2_000, new BusinessDomainException("fail"));
+        latency.record(3_000, new BusinessDomainException("fail"));
+        latency.record(4_000, new IllegalArgumentException("illegal"));
+
+        LatencySnapshot snapshot = metrics.snapshot("ExceptionEndPoint.endPointFailsHandledByFramework").orElseThrow();
+        assertThat(snapshot.count()).isEqualTo(4);
+        assertThat(snapshot.errorRate()).isEqualTo(0.75);
+        assertThat(snapshot.failures().count()).isEqualTo(3);
+        assertThat(snapshot.failuresByType())
+                .containsEntry(BusinessDomainException.class.getName(), 2L)
+                .containsEntry(IllegalArgumentException.class.getName(), 1L);
+        assertThat(metrics.snapshot("unknown")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("concurrent recordings are all counted")
+    void concurrentRecording() throws InterruptedException {
+        RollingLatency latency = metrics.latency("concurrent");
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            threads.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    latency.record(i, null);
+                }
+            });
+        }
+        threads.shutdown();
+        assertThat(threads.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(latency.snapshot().successes().count()).isEqualTo(80_000);
+    }
+
+    @Test
+    @DisplayName("a histogram keeps a single stripe until recordings contend, then spreads up to its concurrency")
+    void stripesOnContention() throws InterruptedException {
+        LatencyHistogram alone = new LatencyHistogram(8);
+        for (int i = 0; i < 10_000; i++) {
+            alone.record(1_000);
+        }
+        assertThat(alone.stripesInUse()).isEqualTo(1);
+
+        LatencyHistogram contended = new LatencyHistogram(4);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            threads.execute(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    contended.record(1_000);
+                }
+            });
+        }
+        threads.shutdown();
+        assertThat(threads.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(contended.stripesInUse()).isBetween(1, 4);
+        assertThat(contended.distribution().count()).isEqualTo(800_000);
+    }
+
+    @Test
+    @DisplayName("old slots leave the rolling window")
+    void rollingWindow() throws InterruptedException {
+        RollingLatency latency = new LatencyMetrics(20, 2).latency("rolling");
+        latency.record(1_000, null);
+        Thread.sleep(100);
+        latency.record(1_000, new BusinessDomainException("fail"));
+
+        LatencySnapshot snapshot = latency.snapshot();
+        assertThat(snapshot.successes().count()).isZero();
+        assertThat(snapshot.failures().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,103 @@
+package io.permasoft.katas.javaplays.exceptions.monitoring.events;
+
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.configuration.AspectsConfiguration;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DisplayName("Throw, wrap, recover and fail points are Java Flight Recorder events")
+class ExceptionEventsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("each point of the use cases, the store and the endpoint aspect is recorded with its outcome")
+    void records_exception_points() throws Exception {
+        ExceptionUseCases useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        }));
+        ExceptionEndPoint endPoint = AspectsConfiguration.advised(new ExceptionEndPoint(useCases), ExceptionTranslator.standard(),
+                new LatencyMetrics(), InlineLogSink.INSTANCE, FailureObserver.NONE);
+
+        Path dump = directory.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ExceptionEvents.PREFIX + "DaoCall");
+            recording.enable(ExceptionEvents.PREFIX + "Recovery");
+            recording.enable(ExceptionEvents.PREFIX + "Wrap");
+            recording.enable(ExceptionEvents.PREFIX + "SuppressedClose");
+            recording.enable(ExceptionEvents.PREFIX + "EndpointCall");
+            recording.start();
+            useCases.warnUseCaseWorksDespiteException(-1);
+            catchThrowable(endPoint::endPointFailsHandledByFramework);
+            catchThrowable(useCases::failOnMissingRessources);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(named(events, "DaoCall")).extracting(event -> event.getString("outcome")).containsOnly("failure");
+        assertThat(named(events, "Recovery")).singleElement()
+                .satisfies(event -> assertThat(event.getString("failureMessage")).isEqualTo("Negative input[-1] is invalid"))
+                .satisfies(event -> assertThat(event.getDuration("useCaseDuration")).isPositive())
+                .satisfies(event -> assertThat(event.getStackTrace()).isNull());
+        assertThat(named(events, "Wrap")).singleElement()
+                .satisfies(event -> assertThat(event.getString("wrapperType")).endsWith("BusinessDomainException"));
+        assertThat(named(events, "SuppressedClose")).singleElement()
+                .satisfies(event -> assertThat(event.getString("closeFailureMessage")).isEqualTo("error at closing time"));
+        assertThat(named(events, "EndpointCall")).singleElement()
+                .satisfies(event -> assertThat(event.getString("outcome")).isEqualTo("thrown"))
+                .satisfies(event -> assertThat(event.getString("endpoint")).contains("endPointFailsHandledByFramework"));
+    }
+
+    @Test
+    @DisplayName("the exceptions.jfc settings record the stack traces of the use case events")
+    void stack_traces_from_settings() throws Exception {
+        ExceptionUseCases useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        }));
+        Configuration settings;
+        try (Reader jfc = new InputStreamReader(getClass().getResourceAsStream("/jfr/exceptions.jfc"), StandardCharsets.UTF_8)) {
+            settings = Configuration.create(jfc);
+        }
+
+        Path dump = directory.resolve("stack-traces.jfr");
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            useCases.warnUseCaseWorksDespiteException(-1);
+            catchThrowable(() -> useCases.errorUseCaseFailsDueToException(-1));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(named(events, "Recovery")).singleElement().satisfies(event -> assertThat(event.getStackTrace()).isNotNull());
+        assertThat(named(events, "Wrap")).singleElement().satisfies(event -> assertThat(event.getStackTrace()).isNotNull());
+        assertThat(named(events, "DaoCall")).allSatisfy(event -> assertThat(event.getStackTrace()).isNull());
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(ExceptionEvents.PREFIX + name))
+                .collect(Collectors.toList());
+    }
+}
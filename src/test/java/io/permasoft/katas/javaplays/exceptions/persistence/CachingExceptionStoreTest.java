@@ -0,0 +1,148 @@
+package io.permasoft.katas.javaplays.exceptions.persistence;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import io.permasoft.katas.javaplays.exceptions.resilience.Bulkhead;
+import io.permasoft.katas.javaplays.exceptions.resilience.CircuitBreaker;
+import io.permasoft.katas.javaplays.exceptions.resilience.Guard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DisplayName("Caching store in front of the DAO")
+class CachingExceptionStoreTest {
+    private final AtomicInteger daoCalls = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private final ExceptionDao countingDao = new ExceptionDao() {
+        @Override
+        public IntOutcome apiWhenLibReturnsOutcomes(int id) {
+            daoCalls.incrementAndGet();
+            return ExceptionDao.super.apiWhenLibReturnsOutcomes(id);
+        }
+    };
+
+    @Test
+    @DisplayName("valid and invalid ids reach the DAO once per ttl")
+    void positiveAndNegativeCaching() throws Exception {
+        CachingExceptionStore store = new CachingExceptionStore(countingDao, StoreGuards.NONE, 100, 60_000, 1_000, nanos::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.conditionalThrow(7)).isEqualTo(7);
+            assertThat(catchThrowable(store::throwChecked)).isInstanceOf(YourUseOfMyLibraryIsInvalid.class);
+        }
+        assertThat(daoCalls).hasValue(2);
+        assertThat(store.hits()).isEqualTo(9);
+        assertThat(store.negativeHits()).isEqualTo(9);
+        assertThat(store.misses()).isEqualTo(2);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        store.conditionalOutcome(7);
+        store.conditionalOutcome(-1);
+        assertThat(daoCalls).hasValue(3);
+        assertThat(store.expirations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("concurrent misses on the same id share one load")
+    void singleFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExceptionDao slowDao = new ExceptionDao() {
+            @Override
+            public IntOutcome apiWhenLibReturnsOutcomes(int id) {
+                daoCalls.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ExceptionDao.super.apiWhenLibReturnsOutcomes(id);
+            }
+        };
+        CachingExceptionStore store = new CachingExceptionStore(slowDao, 100, 60_000, 60_000);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            Future<?> first = threads.submit(() -> store.conditionalOutcome(-3));
+            loading.await();
+            Future<?>[] others = new Future<?>[7];
+            for (int i = 0; i < others.length; i++) {
+                others[i] = threads.submit(() -> store.conditionalOutcome(-3));
+            }
+            while (store.sharedLoads() < others.length) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            first.get();
+            for (Future<?> other : others) {
+                other.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertThat(daoCalls).hasValue(1);
+        assertThat(store.misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("hits are served before the guard : not counted by the circuit breaker, still answered while it is open")
+    void hitsOutsideGuard() {
+        ExceptionDao failingDao = new ExceptionDao() {
+            @Override
+            public IntOutcome apiWhenLibReturnsOutcomes(int id) {
+                daoCalls.incrementAndGet();
+                if (id == 13) {
+                    throw new IllegalStateException("database unreachable");
+                }
+                return ExceptionDao.super.apiWhenLibReturnsOutcomes(id);
+            }
+        };
+        Guard guard = new Guard(new CircuitBreaker("test", 10, 4, 50, 60_000, 2), new Bulkhead("test", 1));
+        CachingExceptionStore store = new CachingExceptionStore(failingDao, new StoreGuards(Map.of(StoreMethod.CONDITIONAL_OUTCOME, guard)),
+                100, 60_000, 60_000, nanos::get);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(store.conditionalOutcome(7).isSuccess()).isTrue();
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(catchThrowable(() -> store.conditionalOutcome(13))).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(guard.circuitBreaker().state()).as("3 failures out of 4 DAO loads").isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThat(store.conditionalOutcome(7).isSuccess()).as("hit while open").isTrue();
+        assertThat(catchThrowable(() -> store.conditionalOutcome(8))).isInstanceOf(BusinessDomainException.class);
+        assertThat(daoCalls).hasValue(4);
+        assertThat(guard.bulkhead().inFlight()).isZero();
+        assertThat(guard.bulkhead().rejectedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("least recently used ids are evicted beyond max size")
+    void bounded() {
+        CachingExceptionStore store = new CachingExceptionStore(countingDao, StoreGuards.NONE, 100, 60_000, 60_000, nanos::get);
+        for (int id = 0; id < 1000; id++) {
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+            store.conditionalOutcome(0);
+            store.conditionalOutcome(id);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(101);
+        assertThat(store.evictions()).isGreaterThanOrEqualTo(899);
+        int callsBefore = daoCalls.get();
+        store.conditionalOutcome(0);
+        assertThat(daoCalls).hasValue(callsBefore);
+    }
+}
@@ -0,0 +1,175 @@
+package io.permasoft.katas.javaplays.exceptions.persistence.segmentlog;
+
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Segment log stores ids to values in append only mapped segments")
+class SegmentLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("the latest value of an id is read back, also after reopening, unknown ids are not found")
+    void stores_and_reopens() throws IOException {
+        try (SegmentLog log = SegmentLog.open(directory, 64, 4, true)) {
+            log.put(1, 10);
+            log.put(2, 20);
+            log.put(1, 11);
+            assertThat(log.get(1).getAsInt()).isEqualTo(11);
+            assertThat(log.size()).isEqualTo(2);
+            assertThatThrownBy(() -> SegmentLog.open(directory, 64, 4, true)).isInstanceOf(IOException.class);
+        }
+        try (SegmentLog log = SegmentLog.open(directory, 64, 4, true)) {
+            assertThat(log.get(1).getAsInt()).isEqualTo(11);
+            assertThat(log.get(2).getAsInt()).isEqualTo(20);
+            IntOutcome unknown = log.get(3);
+            assertThat(unknown.isFailure()).isTrue();
+            assertThat(((IntOutcome.Failure) unknown).reason()).isEqualTo(FailureReason.NOT_FOUND);
+            assertThat(log.appended()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("full segments roll, compaction in the background keeps only the latest values in fewer segments")
+    void rolls_and_compacts() throws IOException {
+        try (SegmentLog log = SegmentLog.open(directory, 8, 3, false)) {
+            for (int i = 0; i < 100; i++) {
+                log.put(i % 5, i);
+            }
+            log.close(); // waits for the background compaction
+            assertThat(log.compactions()).isPositive();
+            assertThat(log.segments()).isLessThanOrEqualTo(3);
+            assertThat(log.size()).isEqualTo(5);
+        }
+        try (SegmentLog log = SegmentLog.open(directory, 8, 3, false)) {
+            for (int id = 0; id < 5; id++) {
+                assertThat(log.get(id).getAsInt()).isEqualTo(95 + id);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("concurrent writers share forces, about one per batch of writers, every write returned is durable")
+    void group_commit() throws Exception {
+        int writers = 8;
+        int writes = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try (SegmentLog log = SegmentLog.open(directory, 4096, 4, true)) {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] done = new Future<?>[writers];
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                done[w] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < writes; i++) {
+                        log.put(writer * writes + i, i);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> writer : done) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(log.size()).isEqualTo(writers * writes);
+            // one force per batch of writers would be writes, allow for batches of half of them
+            assertThat(log.forces()).isLessThanOrEqualTo(2L * writes);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("a torn record ends the replay and is wiped, so that nothing after it comes back")
+    void torn_tail() throws IOException {
+        try (SegmentLog log = SegmentLog.open(directory, 16, 4, true)) {
+            log.put(1, 1);
+            log.put(2, 2);
+        }
+        Path segment = directory.resolve("segment-0000000000000000.log");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(2 * SegmentLog.RECORD_SIZE);
+            torn.putInt(3).putInt(3).putInt(0);
+            torn.putInt(4).putInt(4).putInt(SegmentLog.check(4, 4));
+            torn.flip();
+            channel.write(torn, 2L * SegmentLog.RECORD_SIZE);
+        }
+        try (SegmentLog log = SegmentLog.open(directory, 16, 4, true)) {
+            assertThat(log.size()).isEqualTo(2);
+            assertThat(log.get(3).isFailure()).isTrue();
+            assertThat(log.get(4).isFailure()).isTrue();
+            log.put(5, 5);
+        }
+        try (SegmentLog log = SegmentLog.open(directory, 16, 4, true)) {
+            assertThat(log.get(4).isFailure()).isTrue();
+            assertThat(log.get(5).getAsInt()).isEqualTo(5);
+            assertThat(log.size()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("the dao answers stored values, unknown ids are not found and negative ones stay invalid")
+    void dao() throws IOException {
+        try (SegmentLog log = SegmentLog.open(directory, 16, 4, true)) {
+            SegmentLogExceptionDao dao = new SegmentLogExceptionDao(log);
+            dao.store(7, 42);
+            assertThat(dao.apiWhenLibShallWork(7)).isEqualTo(42);
+            assertThatThrownBy(() -> dao.apiWhenLibShallWork(8)).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("No value stored for id[8]");
+            assertThatThrownBy(() -> dao.apiWhenLibWantsYouToHandleItsExceptions(8)).isInstanceOf(YourUseOfMyLibraryIsInvalid.class);
+            assertThat(((IntOutcome.Failure) dao.apiWhenLibReturnsOutcomes(-7)).reason()).isEqualTo(FailureReason.NEGATIVE_INPUT);
+        }
+    }
+
+    @Test
+    @DisplayName("records written before the process dies are replayed, even never synced")
+    void survives_crash() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process crashing = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Crashing.class.getName(), directory.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        assertThat(crashing.waitFor(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(crashing.exitValue()).isEqualTo(137);
+
+        try (SegmentLog log = SegmentLog.open(directory, Crashing.RECORDS_PER_SEGMENT, 4, false)) {
+            assertThat(log.size()).isEqualTo(Crashing.RECORDS);
+            assertThat(log.get(Crashing.RECORDS - 1).getAsInt()).isEqualTo(-(Crashing.RECORDS - 1));
+        }
+    }
+
+    /**
+     * Writes across segments without syncing then halts, neither closing the log nor running shutdown hooks.
+     */
+    static final class Crashing {
+        static final int RECORDS_PER_SEGMENT = 64;
+        static final int RECORDS = 150;
+
+        public static void main(String[] args) throws IOException {
+            SegmentLog log = SegmentLog.open(Paths.get(args[0]), RECORDS_PER_SEGMENT, 4, false);
+            for (int i = 0; i < RECORDS; i++) {
+                log.put(i, -i);
+            }
+            Runtime.getRuntime().halt(137);
+        }
+    }
+}
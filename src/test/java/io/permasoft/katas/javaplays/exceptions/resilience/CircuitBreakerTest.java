@@ -0,0 +1,203 @@
+package io.permasoft.katas.javaplays.exceptions.resilience;
+
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.FailureReason;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.IntOutcome;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.StoreGuards;
+import io.permasoft.katas.javaplays.exceptions.persistence.StoreMethod;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DisplayName("Circuit breaker and bulkhead around DAO calls")
+class CircuitBreakerTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 10, 4, 50, 1000, 2, nanos::get);
+
+    @Test
+    @DisplayName("opens at the failure rate, half opens after the delay and closes after successful trials")
+    void stateTransitions() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.onSuccess();
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.onFailure();
+        }
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).as("only 2 trial calls").isFalse();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.openedCount()).isEqualTo(1);
+        assertThat(circuitBreaker.halfOpenedCount()).isEqualTo(1);
+        assertThat(circuitBreaker.closedCount()).isEqualTo(1);
+        assertThat(circuitBreaker.rejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a failed trial call opens the circuit again")
+    void failedTrial() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("trial calls that never report open the circuit again once the open delay elapsed once more")
+    void stuckTrials() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.state()).as("late trial result ignored").isEqualTo(CircuitBreaker.State.OPEN);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(circuitBreaker.tryAcquire()).as("next trial round").isTrue();
+        assertThat(circuitBreaker.openedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("calls completing around half open to closed transitions never skew the window of the next closed phase")
+    void concurrentTransitions() throws InterruptedException {
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.execute(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    if (thread == 0 && i % 100 == 0) {
+                        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+                    }
+                    if (!circuitBreaker.tryAcquire()) {
+                        continue;
+                    }
+                    if ((i + thread) % 3 == 0) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                }
+            });
+        }
+        threads.shutdown();
+        assertThat(threads.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(circuitBreaker.closedCount()).as("transitions exercised").isPositive();
+
+        while (circuitBreaker.state() != CircuitBreaker.State.CLOSED) {
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            if (circuitBreaker.tryAcquire()) {
+                circuitBreaker.onSuccess();
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onSuccess();
+        }
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure();
+        }
+        assertThat(circuitBreaker.state()).as("4 failures in a window of 10").isEqualTo(CircuitBreaker.State.CLOSED);
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.state()).as("5 failures in a window of 10").isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("open circuit sheds store calls with a preallocated exception without reaching the DAO")
+    void guardedStore() {
+        AtomicInteger daoCalls = new AtomicInteger();
+        ExceptionDao dao = new ExceptionDao() {
+            @Override
+            public Integer apiWhenLibShallWork(int id) {
+                daoCalls.incrementAndGet();
+                throw new IllegalStateException("database unreachable");
+            }
+        };
+        Guard guard = new Guard(circuitBreaker, new Bulkhead("test", 8));
+        ExceptionStore store = new ExceptionStore(dao, new StoreGuards(Map.of(StoreMethod.THROW_UNCHECKED, guard)));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(catchThrowable(store::throwUnchecked)).isInstanceOf(IllegalStateException.class);
+        }
+        Throwable shed = catchThrowable(store::throwUnchecked);
+        assertThat(shed).isInstanceOf(BusinessDomainException.class).hasMessageContaining("circuit open");
+        assertThat(shed.getStackTrace()).isEmpty();
+        assertThat(catchThrowable(store::throwUnchecked)).isSameAs(shed);
+        assertThat(daoCalls).hasValue(4);
+        assertThat(guard.bulkhead().inFlight()).isZero();
+        assertThat(catchThrowable(store::throwChecked)).as("other methods unguarded").isInstanceOf(YourUseOfMyLibraryIsInvalid.class);
+    }
+
+    @Test
+    @DisplayName("invalid inputs and missing values do not open the circuit, they prove the dependency answered")
+    void invalidInputs() {
+        ExceptionDao dao = new ExceptionDao() {
+            @Override
+            public IntOutcome apiWhenLibReturnsOutcomes(int id) {
+                return id == 0 ? IntOutcome.failure(FailureReason.NOT_FOUND, id) : ExceptionDao.super.apiWhenLibReturnsOutcomes(id);
+            }
+        };
+        Guard guard = new Guard(circuitBreaker, new Bulkhead("test", 8));
+        ExceptionStore store = new ExceptionStore(dao, new StoreGuards(Map.of(
+                StoreMethod.THROW_UNCHECKED, guard, StoreMethod.CONDITIONAL_THROW, guard, StoreMethod.CONDITIONAL_OUTCOME, guard)));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(catchThrowable(store::throwUnchecked)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(catchThrowable(() -> store.conditionalThrow(-1))).isInstanceOf(YourUseOfMyLibraryIsInvalid.class);
+            assertThat(store.conditionalOutcome(-1).isFailure()).isTrue();
+        }
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.conditionalOutcome(0).isFailure()).isTrue();
+        }
+        assertThat(circuitBreaker.state()).as("5 missing values in a window of 10").isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.openedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("bulkhead rejects calls beyond its concurrency limit")
+    void bulkhead() {
+        Bulkhead bulkhead = new Bulkhead("test", 2);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        bulkhead.release();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.rejectedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,145 @@
+package io.permasoft.katas.javaplays.exceptions.resources;
+
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Resource pool reuses resources and closes them off the request path")
+class ResourcePoolTest {
+    private final List<Throwable> observed = new CopyOnWriteArrayList<>();
+    private final List<Runnable> closing = new ArrayList<>();
+    private final Executor direct = Runnable::run;
+    private final AtomicInteger opened = new AtomicInteger();
+
+    private ResourcePool<Connection> pool(int maxSize) {
+        return new ResourcePool<>("connections", () -> new Connection(opened.incrementAndGet()), connection -> !connection.broken,
+                maxSize, direct, closing::add, observed::add);
+    }
+
+    @Test
+    @DisplayName("a returned resource is handed out again, the most recent first")
+    void reuses() throws Exception {
+        ResourcePool<Connection> pool = pool(2);
+        ResourcePool.Lease<Connection> first = pool.lease(1, TimeUnit.SECONDS);
+        ResourcePool.Lease<Connection> second = pool.lease(1, TimeUnit.SECONDS);
+        assertThat(pool.statistics().active()).isEqualTo(2);
+        first.close();
+        second.close();
+        try (ResourcePool.Lease<Connection> again = pool.lease(1, TimeUnit.SECONDS)) {
+            assertThat(again.get().id).isEqualTo(2);
+        }
+        PoolStatistics statistics = pool.statistics();
+        assertThat(statistics.created()).isEqualTo(2);
+        assertThat(statistics.borrowed()).isEqualTo(3);
+        assertThat(statistics.idle()).isEqualTo(2);
+        assertThat(statistics.active()).isZero();
+        assertThat(statistics.borrowWait().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("a full pool makes borrowers wait, then time out")
+    void times_out() throws Exception {
+        ResourcePool<Connection> pool = pool(1);
+        try (ResourcePool.Lease<Connection> held = pool.lease(1, TimeUnit.SECONDS)) {
+            assertThatThrownBy(() -> pool.lease(10, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        }
+        assertThat(pool.statistics().timeouts()).isEqualTo(1);
+        pool.lease(10, TimeUnit.MILLISECONDS).close();
+    }
+
+    @Test
+    @DisplayName("invalid resources are closed on the close executor, close failures are counted and observed, never thrown")
+    void closes_invalid_off_path() throws Exception {
+        ResourcePool<Connection> pool = pool(2);
+        ResourcePool.Lease<Connection> broken = pool.lease(1, TimeUnit.SECONDS);
+        broken.get().broken = true;
+        broken.close();
+        ResourcePool.Lease<Connection> failed = pool.lease(1, TimeUnit.SECONDS);
+        failed.invalidate();
+        failed.close();
+        failed.close();
+
+        assertThat(closing).hasSize(2);
+        assertThat(pool.statistics().closeFailures()).isZero();
+        closing.forEach(Runnable::run);
+
+        PoolStatistics statistics = pool.statistics();
+        assertThat(statistics.invalidated()).isEqualTo(2);
+        assertThat(statistics.closeFailures()).isEqualTo(2);
+        assertThat(statistics.idle()).isZero();
+        assertThat(observed).hasSize(2).allMatch(IOException.class::isInstance);
+        assertThat(pool.lastCloseFailure()).hasMessage("connection 2 failed closing");
+    }
+
+    @Test
+    @DisplayName("a failing factory frees its slot, closing the pool closes the idle resources")
+    void factory_failure_and_shutdown() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        ResourcePool<Connection> pool = new ResourcePool<>("flaky", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("cannot connect");
+            }
+            return new Connection(attempts.get());
+        }, connection -> true, 1, direct, null, observed::add);
+        assertThatThrownBy(() -> pool.lease(10, TimeUnit.MILLISECONDS)).isInstanceOf(IOException.class);
+        pool.lease(10, TimeUnit.MILLISECONDS).close();
+
+        pool.close();
+        assertThat(pool.statistics().idle()).isZero();
+        assertThat(pool.statistics().closeFailures()).isEqualTo(1);
+        assertThatThrownBy(() -> pool.lease(10, TimeUnit.MILLISECONDS)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("the pooled use case fails without suppressed close failure, the pool reports it instead")
+    void pooled_use_case() throws InterruptedException {
+        ExceptionUseCases useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+        }), InlineLogSink.INSTANCE, observed::add, SequentialBulkExecutor.INSTANCE);
+
+        assertThatThrownBy(useCases::failOnMissingPooledRessources)
+                .isInstanceOf(BusinessDomainException.class)
+                .hasMessageContaining("wrap checked in unchecked")
+                .hasNoSuppressedExceptions()
+                .getCause()
+                .isInstanceOf(YourUseOfMyLibraryIsInvalid.class)
+                .hasNoSuppressedExceptions();
+
+        for (int i = 0; i < 500 && useCases.ressources().statistics().closeFailures() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(useCases.ressources().statistics().closeFailures()).isEqualTo(1);
+        assertThat(observed).anyMatch(failure -> failure instanceof IOException && "error at closing time".equals(failure.getMessage()));
+    }
+
+    static final class Connection implements AutoCloseable {
+        final int id;
+        volatile boolean broken;
+
+        Connection(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public void close() throws IOException {
+            throw new IOException("connection " + id + " failed closing");
+        }
+    }
+}
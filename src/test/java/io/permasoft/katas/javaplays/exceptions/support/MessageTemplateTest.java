@@ -0,0 +1,118 @@
+package io.permasoft.katas.javaplays.exceptions.support;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionEndPoint;
+import io.permasoft.katas.javaplays.exceptions.api.ExceptionTranslator;
+import io.permasoft.katas.javaplays.exceptions.application.ExceptionUseCases;
+import io.permasoft.katas.javaplays.exceptions.configuration.AspectsConfiguration;
+import io.permasoft.katas.javaplays.exceptions.domain.BusinessDomainException;
+import io.permasoft.katas.javaplays.exceptions.execution.SequentialBulkExecutor;
+import io.permasoft.katas.javaplays.exceptions.externallibrary.YourUseOfMyLibraryIsInvalid;
+import io.permasoft.katas.javaplays.exceptions.logging.InlineLogSink;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionCatalog;
+import io.permasoft.katas.javaplays.exceptions.monitoring.ExceptionFlightRecorder;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObserver;
+import io.permasoft.katas.javaplays.exceptions.monitoring.FailureObservers;
+import io.permasoft.katas.javaplays.exceptions.monitoring.LatencyMetrics;
+import io.permasoft.katas.javaplays.exceptions.monitoring.events.ExceptionEvents;
+import io.permasoft.katas.javaplays.exceptions.persistence.ExceptionStore;
+import io.permasoft.katas.javaplays.exceptions.persistence.jpa.ExceptionDao;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Message templates render failure messages only when read")
+class MessageTemplateTest {
+    private static final MessageTemplate RANGE = MessageTemplate.of("Range[{}, {}] of {cause} is {unknown}");
+    private static final MessageTemplate WRAPPED = MessageTemplate.of("wrapped due to : {cause}");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("arguments and cause fill their placeholders, other braces are kept")
+    void renders() {
+        assertThat(RANGE.argumentCount()).isEqualTo(2);
+        assertThat(RANGE.render(new IllegalStateException("cause"), 1, -2)).isEqualTo("Range[1, -2] of cause is {unknown}");
+        assertThat(RANGE.render(null, 3)).isEqualTo("Range[3, {}] of null is {unknown}");
+        assertThat(MessageTemplate.of("{cause}{}").render(null, 4)).isEqualTo("null4");
+    }
+
+    @Test
+    @DisplayName("the cause chain renders into one reusable buffer, getMessage memoizes the same text")
+    void renders_cause_chain() {
+        YourUseOfMyLibraryIsInvalid invalid = YourUseOfMyLibraryIsInvalid.negativeInput(-1);
+        BusinessDomainException failure = new BusinessDomainException(WRAPPED, invalid);
+        StringBuilder buffer = new StringBuilder();
+        failure.formatMessageTo(buffer);
+
+        assertThat(buffer).hasToString("wrapped due to : Negative input[-1] is invalid");
+        assertThat(failure.getMessage()).isEqualTo(buffer.toString()).isSameAs(failure.getMessage());
+        assertThat(failure).hasToString(BusinessDomainException.class.getName() + ": wrapped due to : Negative input[-1] is invalid");
+        assertThat(failure.messageTemplate()).isSameAs(WRAPPED);
+        assertThat(new BusinessDomainException("plain").messageTemplate()).isNull();
+    }
+
+    @Test
+    @DisplayName("a templated failure thrown through aspects, observers and events is only rendered when logged")
+    void renders_only_when_logged() throws Exception {
+        ch.qos.logback.classic.Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        Level level = root.getLevel();
+        try (ExceptionFlightRecorder recorder = ExceptionFlightRecorder.open(directory.resolve("flight.rec"), 16, 64 * 1024);
+             Recording recording = new Recording()) {
+            FailureObserver observers = FailureObservers.of(new ExceptionCatalog(), recorder);
+            ExceptionUseCases useCases = new ExceptionUseCases(new ExceptionStore(new ExceptionDao() {
+            }), InlineLogSink.INSTANCE, observers, SequentialBulkExecutor.INSTANCE);
+            ExceptionEndPoint endPoint = AspectsConfiguration.advised(new ExceptionEndPoint(useCases), ExceptionTranslator.standard(),
+                    new LatencyMetrics(), InlineLogSink.INSTANCE, observers);
+            recording.enable(ExceptionEvents.PREFIX + "DaoCall");
+            recording.enable(ExceptionEvents.PREFIX + "Recovery");
+            recording.enable(ExceptionEvents.PREFIX + "Wrap");
+            recording.enable(ExceptionEvents.PREFIX + "SuppressedClose");
+            recording.enable(ExceptionEvents.PREFIX + "EndpointCall");
+            recording.start();
+
+            root.setLevel(Level.OFF);
+            BusinessDomainException silent = thrown(endPoint);
+            root.setLevel(level);
+            BusinessDomainException logged = thrown(endPoint);
+
+            assertThat(silent.messageTemplate()).isNotNull();
+            assertThat(recorder.recorded()).isEqualTo(4);
+            assertThat(renderedMessage(silent)).as("nobody logged it").isNull();
+            assertThat(renderedMessage(logged)).isEqualTo("fail calling external library due to : Negative input[-1] is invalid");
+        } finally {
+            root.setLevel(level);
+        }
+    }
+
+    /**
+     * AssertJ catchThrowable renders the message of what it catches, a plain catch does not.
+     */
+    private static BusinessDomainException thrown(ExceptionEndPoint endPoint) {
+        try {
+            endPoint.endPointFailsHandledByFramework();
+        } catch (BusinessDomainException expected) {
+            return expected;
+        }
+        throw new AssertionError("endPointFailsHandledByFramework shall fail");
+    }
+
+    /**
+     * The memo getMessage fills, null until the message is rendered.
+     */
+    private static String renderedMessage(BusinessDomainException failure) throws ReflectiveOperationException {
+        Field message = BusinessDomainException.class.getDeclaredField("message");
+        message.setAccessible(true);
+        return (String) message.get(failure);
+    }
+}